@@ -4,46 +4,82 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 import ru.practicum.shareit.client.BaseClient;
 
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ExecutorService streams;
+    private final long streamTimeout;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.stream-timeout:30m}") Duration streamTimeout,
+                         @Value("${shareit-server.max-streams:200}") int maxStreams,
+                         RestTemplateBuilder builder) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
                         .build()
         );
+        this.streamTimeout = streamTimeout.toMillis();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxStreams, maxStreams, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        this.streams = executor;
     }
 
     public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> bookItems(long userId, BookingBatchRequestDto requestDto) {
+        return post("/batch", userId, requestDto);
+    }
+
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, boolean history,
+                                              Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
+                "history", history,
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&history={history}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getSummary(long userId) {
+        return get("/summary", userId);
     }
 
     public ResponseEntity<Object> updateStatus(long userId, long bookingId, String approved) {
@@ -53,17 +89,75 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> updateStatuses(long userId, List<BookingStatusUpdateDto> updates) {
+        return patch("/status", userId, updates);
+    }
+
     public ResponseEntity<Object> delete(long userId, long bookingId) {
         return delete("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> readForOwner(long userId, BookingState state, Integer from, Integer size) {
+    public SseEmitter stream(long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout);
+        streams.execute(() -> relay(userId, emitter));
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.shutdownNow();
+    }
+
+    private void relay(long userId, SseEmitter emitter) {
+        try {
+            rest.execute("/stream", HttpMethod.GET, request -> {
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+            }, response -> {
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+                SseEmitter.SseEventBuilder event = SseEmitter.event();
+                boolean pending = false;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (pending) {
+                            emitter.send(event);
+                        }
+                        event = SseEmitter.event();
+                        pending = false;
+                    } else if (line.startsWith(":")) {
+                        emitter.send(SseEmitter.event().comment(line.substring(1)));
+                    } else if (line.startsWith("event:")) {
+                        event.name(line.substring("event:".length()).trim());
+                        pending = true;
+                    } else if (line.startsWith("data:")) {
+                        event.data(line.substring("data:".length()).trim(), MediaType.APPLICATION_JSON);
+                        pending = true;
+                    }
+                }
+                return null;
+            });
+            emitter.complete();
+        } catch (Exception e) {
+            log.info("Booking stream closed, userId={}: {}", userId, e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    public ResponseEntity<Object> readForOwner(long userId, BookingState state, boolean history,
+                                               Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
+                "history", history,
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&history={history}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getSummaryForOwner(long userId) {
+        return get("/owner/summary", userId);
     }
 
 }
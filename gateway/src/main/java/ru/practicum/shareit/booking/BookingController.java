@@ -2,16 +2,23 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -28,6 +35,13 @@ public class BookingController {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestBody @Valid BookingBatchRequestDto requestDto) {
+        log.info("Creating bookings for items {}, userId={}", requestDto.getItemIds(), userId);
+        return bookingClient.bookItems(userId, requestDto);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable Long bookingId) {
@@ -38,12 +52,14 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                              @RequestParam(name = "history", defaultValue = "false") boolean history,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, history={}, from={}, size={}",
+                stateParam, userId, history, from, size);
+        return bookingClient.getBookings(userId, state, history, from, size);
     }
 
     @PatchMapping("/{bookingId}")
@@ -54,6 +70,14 @@ public class BookingController {
         return bookingClient.updateStatus(userId, bookingId, approved);
     }
 
+    @PatchMapping("/status")
+    public ResponseEntity<Object> updateStatuses(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @NotEmpty @Size(max = 100)
+                                                 List<@Valid BookingStatusUpdateDto> updates) {
+        log.info("Update status for {} bookings, userId={}", updates.size(), userId);
+        return bookingClient.updateStatuses(userId, updates);
+    }
+
     @DeleteMapping("/{bookingId}")
     public ResponseEntity<Object> delete(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @PathVariable long bookingId) {
@@ -61,15 +85,35 @@ public class BookingController {
         return bookingClient.delete(userId, bookingId);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get booking summary, userId={}", userId);
+        return bookingClient.getSummary(userId);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Stream bookings, userId={}", userId);
+        return bookingClient.stream(userId);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> readForOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                               @RequestParam(name = "history", defaultValue = "false") boolean history,
                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking for owner with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.readForOwner(userId, state, from, size);
+        log.info("Get booking for owner with state {}, userId={}, history={}, from={}, size={}",
+                stateParam, userId, history, from, size);
+        return bookingClient.readForOwner(userId, state, history, from, size);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getSummaryForOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get booking summary for owner, userId={}", userId);
+        return bookingClient.getSummaryForOwner(userId);
     }
 
 }
@@ -11,6 +11,8 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -35,11 +37,15 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> readAll(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> readAll(long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get("?from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
         return get("?from={from}&size={size}", userId, parameters);
     }
 
@@ -51,17 +57,47 @@ public class ItemClient extends BaseClient {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> search(long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> readAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> search(long userId, String text, Integer from, Integer size, String cursor,
+                                         LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        ));
+        StringBuilder path = new StringBuilder("/search?text={text}&from={from}&size={size}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path.append("&cursor={cursor}");
+        }
+        if (start != null) {
+            parameters.put("start", start);
+            parameters.put("end", end);
+            path.append("&start={start}&end={end}");
+        }
+        return get(path.toString(), userId, parameters);
     }
 
     public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
+    public ResponseEntity<Object> readComments(long userId, long itemId, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "size", size
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId, parameters);
+        }
+        return get("/" + itemId + "/comments?size={size}", userId, parameters);
+    }
+
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -38,9 +40,10 @@ public class ItemController {
     @GetMapping
     public ResponseEntity<Object> readAll(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                          @Positive @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Get items, userId={}", userId);
-        return itemClient.readAll(userId, from, size);
+                                          @Positive @RequestParam(defaultValue = "10") Integer size,
+                                          @RequestParam(required = false) String cursor) {
+        log.info("Get items, userId={}, cursor={}", userId, cursor);
+        return itemClient.readAll(userId, from, size, cursor);
     }
 
     @PatchMapping("/{itemId}")
@@ -58,13 +61,35 @@ public class ItemController {
         return itemClient.delete(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> readAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Window start must be before its end");
+        }
+        log.info("Get availability of item {} from {} to {}, userId={}", itemId, from, to, userId);
+        return itemClient.readAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") long userId,
                                          @RequestParam String text,
                                          @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Find items by text {}, userId={}", text, userId);
-        return itemClient.search(userId, text, from, size);
+                                         @Positive @RequestParam(defaultValue = "10") Integer size,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException("Both start and end must be set, start before end");
+        }
+        log.info("Find items by text {}, free from {} to {}, userId={}, cursor={}", text, start, end, userId, cursor);
+        return itemClient.search(userId, text, from, size, cursor, start, end);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -75,4 +100,13 @@ public class ItemController {
         return itemClient.createComment(userId, itemId, commentDto);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> readComments(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @PathVariable long itemId,
+                                               @Positive @RequestParam(defaultValue = "10") Integer size,
+                                               @RequestParam(required = false) String cursor) {
+        log.info("Get comments for item {}, userId={}, cursor={}", itemId, userId, cursor);
+        return itemClient.readComments(userId, itemId, size, cursor);
+    }
+
 }
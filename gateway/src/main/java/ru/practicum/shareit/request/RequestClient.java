@@ -10,6 +10,7 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.RequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -38,12 +39,46 @@ public class RequestClient extends BaseClient {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> readAll(long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> readMatches(long userId, long requestId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
+        return get("/" + requestId + "/matches?from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> readAll(long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get("/all?from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> search(long userId, String text, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get("/search?text={text}&from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> readChanges(long userId, String since, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("size", size));
+        if (since != null) {
+            parameters.put("since", since);
+            return get("/all/changes?since={since}&size={size}", userId, parameters);
+        }
+        return get("/all/changes?size={size}", userId, parameters);
+    }
+
 }
@@ -40,12 +40,40 @@ public class RequestController {
         return requestClient.read(userId, requestId);
     }
 
+    @GetMapping("/{requestId}/matches")
+    public ResponseEntity<Object> readMatches(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @PathVariable long requestId,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Get matches for request {}, userId={}", requestId, userId);
+        return requestClient.readMatches(userId, requestId, from, size);
+    }
+
     @GetMapping("/all")
     public ResponseEntity<Object> readAll(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                          @Positive @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Get all requests, userId={}", userId);
-        return requestClient.readAll(userId, from, size);
+                                          @Positive @RequestParam(defaultValue = "10") Integer size,
+                                          @RequestParam(required = false) String cursor) {
+        log.info("Get all requests, userId={}, cursor={}", userId, cursor);
+        return requestClient.readAll(userId, from, size, cursor);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Object> search(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @RequestParam String text,
+                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                         @Positive @RequestParam(defaultValue = "10") Integer size,
+                                         @RequestParam(required = false) String cursor) {
+        log.info("Find requests by text {}, userId={}, cursor={}", text, userId, cursor);
+        return requestClient.search(userId, text, from, size, cursor);
+    }
+
+    @GetMapping("/all/changes")
+    public ResponseEntity<Object> readChanges(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestParam(required = false) String since,
+                                              @Positive @RequestParam(defaultValue = "100") Integer size) {
+        log.info("Get request changes, userId={}, since={}", userId, since);
+        return requestClient.readChanges(userId, since, size);
     }
 
 }
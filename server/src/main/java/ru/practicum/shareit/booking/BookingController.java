@@ -2,12 +2,19 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingStateMapper;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -24,6 +31,13 @@ public class BookingController {
         return bookingService.create(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDto> createBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                        @RequestBody BookingBatchDto batchDto) {
+        log.debug("CreateBatch({})", batchDto.getItemIds());
+        return bookingService.createBatch(userId, batchDto);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto read(@RequestHeader("X-Sharer-User-Id") Long userId,
                            @PathVariable long bookingId) {
@@ -34,10 +48,17 @@ public class BookingController {
     @GetMapping
     public Collection<BookingDto> readAll(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @RequestParam(defaultValue = "ALL") String state,
+                                          @RequestParam(defaultValue = "false") boolean history,
                                           @RequestParam(defaultValue = "0") int from,
                                           @RequestParam(defaultValue = "10") int size) {
         log.debug("ReadAll for userId:{}.", userId);
-        return bookingService.readAll(userId, BookingStateMapper.toBookingState(state), from, size);
+        return bookingService.readAll(userId, BookingStateMapper.toBookingState(state), history, from, size);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto readSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("ReadSummary for userId:{}.", userId);
+        return bookingService.readSummary(userId);
     }
 
     @PatchMapping("/{bookingId}")
@@ -48,6 +69,13 @@ public class BookingController {
         return bookingService.updateStatus(userId, bookingId, approved);
     }
 
+    @PatchMapping("/status")
+    public List<BookingStatusResultDto> updateStatuses(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody List<BookingStatusUpdateDto> updates) {
+        log.debug("UpdateStatuses({})", updates.size());
+        return bookingService.updateStatuses(userId, updates);
+    }
+
     @DeleteMapping("/{bookingId}")
     public void delete(@RequestHeader("X-Sharer-User-Id") Long userId,
                        @PathVariable long bookingId) {
@@ -55,13 +83,26 @@ public class BookingController {
         bookingService.delete(userId, bookingId);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Stream for userId:{}.", userId);
+        return bookingService.subscribe(userId);
+    }
+
     @GetMapping("/owner")
     public Collection<BookingDto> readForOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                @RequestParam(defaultValue = "ALL") String state,
+                                               @RequestParam(defaultValue = "false") boolean history,
                                                @RequestParam(defaultValue = "0") int from,
                                                @RequestParam(defaultValue = "10") int size) {
         log.debug("ReadForOwner()");
-        return bookingService.readForOwner(userId, BookingStateMapper.toBookingState(state), from, size);
+        return bookingService.readForOwner(userId, BookingStateMapper.toBookingState(state), history, from, size);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto readSummaryForOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("ReadSummaryForOwner()");
+        return bookingService.readSummaryForOwner(userId);
     }
 
 }
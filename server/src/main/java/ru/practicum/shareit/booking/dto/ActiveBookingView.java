@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface ActiveBookingView {
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingSummaryView {
+
+    Long getTotal();
+
+    Long getCurrent();
+
+    Long getPast();
+
+    Long getFuture();
+
+    Long getWaiting();
+
+    Long getRejected();
+
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingEventType {
+    CREATED,
+    STATUS_CHANGED,
+    DELETED,
+    RESYNC
+}
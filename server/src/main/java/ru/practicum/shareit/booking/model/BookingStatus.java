@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.Set;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED,
+    EXPIRED;
+
+    public static final Set<BookingStatus> ACTIVE = Set.of(WAITING, APPROVED);
 }
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ActiveBookingView;
+import ru.practicum.shareit.booking.dto.BookingSummaryView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
@@ -15,48 +21,166 @@ import java.util.Set;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Collection<Booking> findAllByItemIdIn(Set<Long> ids);
+    String COLUMNS = "id, start_date, end_date, item_id, booker_id, status, version";
+
+    String JOINED_COLUMNS = "b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status, b.version";
 
-    Collection<Booking> findAllByBookerIdAndItemIdAndEndIsBefore(Long bookerId, Long itemId, LocalDateTime time);
+    String SUMMARY = "select count(b) as total, " +
+            "coalesce(sum(case when b.start < ?2 and b.end > ?2 then 1 else 0 end), 0) as current, " +
+            "coalesce(sum(case when b.end < ?2 then 1 else 0 end), 0) as past, " +
+            "coalesce(sum(case when b.start > ?2 then 1 else 0 end), 0) as future, " +
+            "coalesce(sum(case when b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "then 1 else 0 end), 0) as waiting, " +
+            "coalesce(sum(case when b.status = ru.practicum.shareit.booking.model.BookingStatus.REJECTED " +
+            "then 1 else 0 end), 0) as rejected " +
+            "from Booking as b ";
+
+    Collection<Booking> findAllByItemIdIn(Set<Long> ids);
 
+    @Query(value = "select r.id as id, r.item_id as itemId, r.booker_id as bookerId, " +
+            "r.start_date as startDate, r.end_date as endDate from (" +
+            "select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "row_number() over (partition by b.item_id order by b.end_date desc) as rn " +
+            "from bookings as b where b.item_id in (?1) and b.start_date < ?2" +
+            ") as r where r.rn = 1 " +
+            "union all " +
+            "select b.id, b.item_id, b.booker_id, b.start_date, b.end_date " +
+            "from bookings as b where b.item_id in (?1) and b.start_date >= ?2", nativeQuery = true)
+    List<ItemBookingView> findTimelineByItemIdIn(Set<Long> itemIds, LocalDateTime time);
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, " +
+            "b.start as startDate, b.end as endDate from Booking as b " +
+            "where b.status = ?1 and b.start < ?2 " +
+            "order by b.id")
+    List<ItemBookingView> findAllByStatusAndStartBefore(BookingStatus status, LocalDateTime time, Pageable page);
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.item.owner.id as ownerId, " +
+            "b.start as startDate, b.end as endDate from Booking as b " +
+            "where b.end > ?1")
+    List<ActiveBookingView> findAllActiveByEndAfter(LocalDateTime time);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking as b set b.status = ?3, b.version = b.version + 1 where b.id in ?1 and b.status = ?2")
+    int updateStatusByIdIn(Collection<Long> ids, BookingStatus from, BookingStatus to);
+
+    @Query("select b from Booking b where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    Collection<Booking> findAllByItemIdAndStatusInAndEndAfter(Long itemId, Set<BookingStatus> statuses,
+                                                              LocalDateTime time);
+
+    @Query("select b from Booking b where b.item.id = ?1 and b.status in ?2 and b.start < ?3 and b.end > ?4 " +
+            "order by b.start")
+    List<Booking> findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(Long itemId,
+                                                                                  Set<BookingStatus> statuses,
+                                                                                  LocalDateTime to,
+                                                                                  LocalDateTime from);
+
+    @Query(value = "select exists(select 1 from bookings where booker_id = ?1 and item_id = ?2 and end_date < ?3) " +
+            "or exists(select 1 from bookings_archive where booker_id = ?1 and item_id = ?2 and end_date < ?3)",
+            nativeQuery = true)
+    boolean existsCompletedByBookerIdAndItemId(Long bookerId, Long itemId, LocalDateTime time);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = ?1")
     List<Booking> findAllByBookerId(Long booker, Pageable page);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.start > ?2")
     List<Booking> findAllByBookerIdAndStartAfter(Long booker, LocalDateTime time, Pageable page);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
     List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long booker, LocalDateTime time1, LocalDateTime time2, Pageable page);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.end < ?2")
     List<Booking> findAllByBookerIdAndEndBefore(Long booker, LocalDateTime time, Pageable page);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.status = ?2")
     List<Booking> findAllByBookerIdAndStatus(Long booker, BookingStatus state, Pageable page);
 
+    @Query(value = "select h.* from (" +
+            "select " + COLUMNS + " from bookings where booker_id = ?1 " +
+            "union all " +
+            "select " + COLUMNS + " from bookings_archive where booker_id = ?1" +
+            ") as h order by h.start_date desc", nativeQuery = true)
+    List<Booking> findAllByBookerIdWithHistory(Long booker, Pageable page);
+
+    @Query(value = "select h.* from (" +
+            "select " + COLUMNS + " from bookings where booker_id = ?1 and end_date < ?2 " +
+            "union all " +
+            "select " + COLUMNS + " from bookings_archive where booker_id = ?1 and end_date < ?2" +
+            ") as h order by h.start_date desc", nativeQuery = true)
+    List<Booking> findAllByBookerIdAndEndBeforeWithHistory(Long booker, LocalDateTime time, Pageable page);
+
+    @Query(value = "select h.* from (" +
+            "select " + JOINED_COLUMNS + " from bookings as b join items as i on i.id = b.item_id " +
+            "where i.owner_id = ?1 " +
+            "union all " +
+            "select " + JOINED_COLUMNS + " from bookings_archive as b join items as i on i.id = b.item_id " +
+            "where i.owner_id = ?1" +
+            ") as h order by h.start_date desc", nativeQuery = true)
+    List<Booking> findAllForOwnerWithHistory(Long owner, Pageable page);
+
+    @Query(value = "select h.* from (" +
+            "select " + JOINED_COLUMNS + " from bookings as b join items as i on i.id = b.item_id " +
+            "where i.owner_id = ?1 and b.end_date < ?2 " +
+            "union all " +
+            "select " + JOINED_COLUMNS + " from bookings_archive as b join items as i on i.id = b.item_id " +
+            "where i.owner_id = ?1 and b.end_date < ?2" +
+            ") as h order by h.start_date desc", nativeQuery = true)
+    List<Booking> findAllForOwnerPastWithHistory(Long owner, LocalDateTime time, Pageable page);
+
+    @Query(SUMMARY + "where b.booker.id = ?1")
+    BookingSummaryView countStatesByBookerId(Long booker, LocalDateTime time);
+
+    @Query(SUMMARY + "where b.item.owner.id = ?1")
+    BookingSummaryView countStatesForOwner(Long owner, LocalDateTime time);
+
+    @Query("select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.id in ?2")
+    List<Booking> findAllForOwnerByIdIn(Long owner, Collection<Long> ids);
+
     @Query("select b from Booking b " +
-            "where b.item in (select i.id from Item i " +
-            "where i.owner.id = ?1)")
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.owner.id = ?1")
     List<Booking> findAllForOwner(Long owner, Pageable page);
 
     @Query("select b from Booking b " +
-            "where b.status =?1 " +
-            "and b.item in (select i.id from Item i " +
-            "where i.owner.id = ?2)")
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.owner.id = ?2 " +
+            "and b.status = ?1")
     List<Booking> findAllForOwnerState(BookingStatus state, Long owner, Pageable page);
 
     @Query("select b from Booking b " +
-            "where b.item in (select i.id from Item i " +
-            "where i.owner.id = ?1) " +
-            "and b.end <?2")
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.end < ?2")
     List<Booking> findAllForOwnerPast(Long itemId, LocalDateTime time, Pageable page);
 
     @Query("select b from Booking b " +
-            "where b.item in (select i.id from Item i " +
-            "where i.owner.id = ?1) " +
-            "and b.start <?2 " +
-            "and b.end>?2")
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.start < ?2 " +
+            "and b.end > ?2")
     List<Booking> findAllForOwnerCurrent(Long itemId, LocalDateTime time, Pageable page);
 
     @Query("select b from Booking b " +
-            "where b.item in (select i.id from Item i " +
-            "where i.owner.id = ?1) " +
-            "and b.start >?2")
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.start > ?2")
     List<Booking> findAllForOwnerFuture(Long itemId, LocalDateTime time, Pageable page);
 
 }
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.ActiveBookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ActiveBookingIndex {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+    private static final Comparator<Slot> NEWEST_FIRST = Comparator.comparing((Slot slot) -> slot.start)
+            .thenComparingLong(slot -> slot.id)
+            .reversed();
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Slot> slots = new HashMap<>();
+    private final Map<Long, NavigableSet<Slot>> byBooker = new HashMap<>();
+    private final Map<Long, NavigableSet<Slot>> byOwner = new HashMap<>();
+    private TimeWheel<Transition> wheel;
+
+    public ActiveBookingIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmUp(LocalDateTime.now());
+    }
+
+    synchronized void warmUp(LocalDateTime time) {
+        wheel = new TimeWheel<>(WHEEL_SIZE, WHEEL_LEVELS, toTick(time));
+        slots.clear();
+        byBooker.clear();
+        byOwner.clear();
+        Collection<ActiveBookingView> bookings = bookingRepository.findAllActiveByEndAfter(time);
+        bookings.forEach(booking -> put(new Slot(booking.getId(), booking.getItemId(), booking.getBookerId(),
+                booking.getOwnerId(), booking.getStartDate(), booking.getEndDate())));
+        log.debug("Индекс текущих бронирований построен, бронирований: {}.", bookings.size());
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        advance(LocalDateTime.now());
+    }
+
+    synchronized void advance(LocalDateTime time) {
+        if (wheel != null) {
+            wheel.advance(toTick(time), this::apply);
+        }
+    }
+
+    public synchronized void add(Booking booking) {
+        if (wheel == null) {
+            return;
+        }
+        remove(booking.getId());
+        put(new Slot(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getItem().getOwner().getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    public synchronized void remove(Booking booking) {
+        if (wheel != null) {
+            remove(booking.getId());
+        }
+    }
+
+    public synchronized void removeByItem(long itemId) {
+        removeIf(slot -> slot.itemId == itemId);
+    }
+
+    public synchronized void removeByUser(long userId) {
+        removeIf(slot -> slot.bookerId == userId || slot.ownerId == userId);
+    }
+
+    public synchronized Optional<List<Long>> findByBooker(long bookerId, Pageable page) {
+        return find(byBooker, bookerId, page);
+    }
+
+    public synchronized Optional<List<Long>> findByOwner(long ownerId, Pageable page) {
+        return find(byOwner, ownerId, page);
+    }
+
+    private Optional<List<Long>> find(Map<Long, NavigableSet<Slot>> index, long userId, Pageable page) {
+        if (wheel == null) {
+            return Optional.empty();
+        }
+        return Optional.of(index.getOrDefault(userId, Collections.emptyNavigableSet()).stream()
+                .skip(page.getOffset())
+                .limit(page.getPageSize())
+                .map(slot -> slot.id)
+                .collect(Collectors.toList()));
+    }
+
+    private void put(Slot slot) {
+        slots.put(slot.id, slot);
+        if (!wheel.schedule(toDeadline(slot.end), new Transition(slot, false))) {
+            slots.remove(slot.id);
+            return;
+        }
+        if (!wheel.schedule(toDeadline(slot.start), new Transition(slot, true))) {
+            activate(slot);
+        }
+    }
+
+    private void remove(long bookingId) {
+        Slot slot = slots.remove(bookingId);
+        if (slot != null) {
+            deactivate(slot);
+        }
+    }
+
+    private void removeIf(Predicate<Slot> filter) {
+        if (wheel == null) {
+            return;
+        }
+        List<Slot> removed = slots.values().stream().filter(filter).collect(Collectors.toList());
+        removed.forEach(slot -> remove(slot.id));
+        log.debug("Из индекса текущих бронирований удалено: {}.", removed.size());
+    }
+
+    private void apply(Transition transition) {
+        if (slots.get(transition.slot.id) != transition.slot) {
+            return;
+        }
+        if (transition.activate) {
+            activate(transition.slot);
+        } else {
+            slots.remove(transition.slot.id);
+            deactivate(transition.slot);
+        }
+    }
+
+    private void activate(Slot slot) {
+        byBooker.computeIfAbsent(slot.bookerId, id -> new TreeSet<>(NEWEST_FIRST)).add(slot);
+        byOwner.computeIfAbsent(slot.ownerId, id -> new TreeSet<>(NEWEST_FIRST)).add(slot);
+    }
+
+    private void deactivate(Slot slot) {
+        detach(byBooker, slot.bookerId, slot);
+        detach(byOwner, slot.ownerId, slot);
+    }
+
+    private static void detach(Map<Long, NavigableSet<Slot>> index, long userId, Slot slot) {
+        NavigableSet<Slot> userSlots = index.get(userId);
+        if (userSlots != null && userSlots.remove(slot) && userSlots.isEmpty()) {
+            index.remove(userId);
+        }
+    }
+
+    private static long toTick(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long toDeadline(LocalDateTime time) {
+        return toTick(time) + (time.getNano() > 0 ? 1 : 0);
+    }
+
+    private static class Slot {
+
+        private final long id;
+        private final long itemId;
+        private final long bookerId;
+        private final long ownerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Slot(long id, long itemId, long bookerId, long ownerId, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.itemId = itemId;
+            this.bookerId = bookerId;
+            this.ownerId = ownerId;
+            this.start = start;
+            this.end = end;
+        }
+
+    }
+
+    private static class Transition {
+
+        private final Slot slot;
+        private final boolean activate;
+
+        Transition(Slot slot, boolean activate) {
+            this.slot = slot;
+            this.activate = activate;
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class BookingCalendar {
+
+    private static final int MAXIMUM_WINDOWS = 32;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, Map<List<LocalDateTime>, ItemAvailabilityDto>> calendars;
+
+    public BookingCalendar(BookingRepository bookingRepository,
+                           @Value("${shareit.booking.calendar.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.booking.calendar.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public ItemAvailabilityDto availability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<List<LocalDateTime>, ItemAvailabilityDto> windows = calendars.get(itemId,
+                key -> new ConcurrentHashMap<>());
+        if (windows.size() >= MAXIMUM_WINDOWS) {
+            windows.clear();
+        }
+        return windows.computeIfAbsent(List.of(from, to), key -> compute(itemId, from, to));
+    }
+
+    public void evict(long itemId) {
+        calendars.invalidate(itemId);
+    }
+
+    private ItemAvailabilityDto compute(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<Booking> bookings = bookingRepository
+                .findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(itemId, BookingStatus.ACTIVE,
+                        to, from);
+        List<BookingIntervalDto> busy = new ArrayList<>();
+        List<BookingIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = null;
+        for (Booking booking : bookings) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            if (busyEnd != null && !start.isAfter(busyEnd)) {
+                if (end.isAfter(busyEnd)) {
+                    busyEnd = end;
+                }
+                continue;
+            }
+            if (busyEnd != null) {
+                busy.add(new BookingIntervalDto(busyStart, busyEnd));
+                cursor = busyEnd;
+            }
+            if (start.isAfter(cursor)) {
+                free.add(new BookingIntervalDto(cursor, start));
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (busyEnd != null) {
+            busy.add(new BookingIntervalDto(busyStart, busyEnd));
+            cursor = busyEnd;
+        }
+        if (to.isAfter(cursor)) {
+            free.add(new BookingIntervalDto(cursor, to));
+        }
+        log.debug("Занятых интервалов: {}, свободных: {} для вещи с id: {}.", busy.size(), free.size(), itemId);
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class BookingEventBroker {
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final long timeout;
+    private final int bufferSize;
+
+    public BookingEventBroker(@Value("${shareit.booking.stream.timeout:30m}") Duration timeout,
+                              @Value("${shareit.booking.stream.buffer-size:64}") int bufferSize,
+                              @Value("${shareit.booking.stream.senders:8}") int senders,
+                              @Value("${shareit.booking.stream.send-queue:1024}") int sendQueue) {
+        this.timeout = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(senders, senders, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(sendQueue), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        this.sender = executor;
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscription subscription = new Subscription(emitter, bufferSize, sender);
+        subscriptions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> unsubscribe(userId, subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(userId, subscription));
+        log.debug("Пользователь с id: {} подписан на события бронирований.", userId);
+        return emitter;
+    }
+
+    public void publish(BookingEventType type, Booking booking) {
+        BookingEventDto event = new BookingEventDto(type, BookingMapper.toBookingDto(booking));
+        Set.of(booking.getBooker().getId(), booking.getItem().getOwner().getId())
+                .forEach(userId -> subscriptions.getOrDefault(userId, Set.of())
+                        .forEach(subscription -> subscription.enqueue(event)));
+    }
+
+    @Scheduled(fixedRateString = "${shareit.booking.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(Subscription::heartbeat));
+    }
+
+    int subscribers(long userId) {
+        return subscriptions.getOrDefault(userId, Set.of()).size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void unsubscribe(long userId, Subscription subscription) {
+        subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    static class Subscription {
+
+        private static final BookingEventDto RESYNC = new BookingEventDto(BookingEventType.RESYNC, null);
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final Executor executor;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(SseEmitter emitter, int capacity, Executor executor) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.executor = executor;
+        }
+
+        void enqueue(BookingEventDto event) {
+            if (!queue.offer(toSseEvent(event))) {
+                synchronized (queue) {
+                    queue.clear();
+                    queue.offer(toSseEvent(RESYNC));
+                }
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            if (queue.isEmpty()) {
+                queue.offer(SseEmitter.event().comment("heartbeat"));
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    log.debug("Отправка событий бронирований отложена до следующего heartbeat.");
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                queue.clear();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private static SseEmitter.SseEventBuilder toSseEvent(BookingEventDto event) {
+            return SseEmitter.event()
+                    .name(event.getType().name())
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryJob {
+
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingCalendar bookingCalendar;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final DistributionSummary expiredRows;
+    private final int batchSize;
+
+    public BookingExpiryJob(BookingRepository bookingRepository,
+                            BookingIntervalIndex bookingIntervalIndex,
+                            BookingCalendar bookingCalendar,
+                            BookingSummaryCache bookingSummaryCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking.expiry.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingCalendar = bookingCalendar;
+        this.bookingSummaryCache = bookingSummaryCache;
+        this.batchSize = batchSize;
+        this.expiredRows = DistributionSummary.builder("shareit.booking.expired")
+                .description("WAITING bookings moved to EXPIRED per run")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.expiry.interval:PT1M}",
+            fixedDelayString = "${shareit.booking.expiry.interval:PT1M}")
+    public void expire() {
+        LocalDateTime time = LocalDateTime.now();
+        int expired = 0;
+        List<ItemBookingView> batch;
+        do {
+            batch = bookingRepository.findAllByStatusAndStartBefore(BookingStatus.WAITING, time,
+                    PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Long> ids = batch.stream().map(ItemBookingView::getId).collect(Collectors.toList());
+            expired += bookingRepository.updateStatusByIdIn(ids, BookingStatus.WAITING, BookingStatus.EXPIRED);
+            Set<Long> itemIds = batch.stream().map(ItemBookingView::getItemId).collect(Collectors.toSet());
+            itemIds.forEach(itemId -> {
+                bookingIntervalIndex.evict(itemId);
+                bookingCalendar.evict(itemId);
+            });
+        } while (batch.size() == batchSize);
+        if (expired > 0) {
+            bookingSummaryCache.evictAll();
+        }
+        expiredRows.record(expired);
+        log.debug("Просроченных бронирований переведено в EXPIRED: {}.", expired);
+    }
+
+}
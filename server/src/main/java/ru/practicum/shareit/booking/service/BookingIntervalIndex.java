@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingOverlapException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.exception.Constant.BOOKING_OVERLAP;
+
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervalTree> trees;
+    private final ReentrantLock[] locks;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.intervals.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.booking.intervals.lock-stripes:1024}") int lockStripes) {
+        this.bookingRepository = bookingRepository;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.locks = new ReentrantLock[lockStripes];
+        Arrays.setAll(locks, stripe -> new ReentrantLock());
+    }
+
+    public Booking reserve(Booking booking, UnaryOperator<Booking> save) {
+        return reserveAll(List.of(booking), bookings -> List.of(save.apply(bookings.get(0)))).get(0);
+    }
+
+    public List<Booking> reserveAll(List<Booking> bookings, UnaryOperator<List<Booking>> save) {
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<ReentrantLock> held = lockAll(itemIds);
+        boolean deferred = false;
+        try {
+            Map<Long, BookingIntervalTree> locked = new HashMap<>();
+            itemIds.forEach(itemId -> locked.put(itemId, trees.get(itemId, this::load)));
+            Map<Long, BookingIntervalTree> accepted = new HashMap<>();
+            for (Booking booking : bookings) {
+                long itemId = booking.getItem().getId();
+                BookingIntervalTree tree = locked.get(itemId);
+                if (!BookingStatus.ACTIVE.contains(booking.getStatus()) || tree.contains(booking.getId())) {
+                    continue;
+                }
+                BookingIntervalTree batch = accepted.computeIfAbsent(itemId, id -> new BookingIntervalTree());
+                if (tree.overlaps(booking.getStart(), booking.getEnd())
+                        || batch.overlaps(booking.getStart(), booking.getEnd())) {
+                    throw new BookingOverlapException(BOOKING_OVERLAP);
+                }
+                batch.add(batch.size(), booking.getStart(), booking.getEnd());
+            }
+            List<Booking> saved = save.apply(bookings);
+            saved.forEach(booking -> apply(locked.get(booking.getItem().getId()), booking));
+            deferred = releaseAfterCompletion(itemIds, held);
+            return saved;
+        } finally {
+            if (!deferred) {
+                held.forEach(ReentrantLock::unlock);
+            }
+        }
+    }
+
+    public void update(Booking booking) {
+        withLock(booking.getItem().getId(), tree -> apply(tree, booking));
+    }
+
+    public void remove(Booking booking) {
+        withLock(booking.getItem().getId(), tree -> tree.remove(booking.getId()));
+    }
+
+    public void evict(long itemId) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            trees.invalidate(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void withLock(long itemId, Consumer<BookingIntervalTree> action) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            BookingIntervalTree tree = trees.getIfPresent(itemId);
+            if (tree != null) {
+                action.accept(tree);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void apply(BookingIntervalTree tree, Booking booking) {
+        if (BookingStatus.ACTIVE.contains(booking.getStatus())) {
+            tree.add(booking.getId(), booking.getStart(), booking.getEnd());
+        } else {
+            tree.remove(booking.getId());
+        }
+    }
+
+    private List<ReentrantLock> lockAll(Set<Long> itemIds) {
+        List<ReentrantLock> held = itemIds.stream()
+                .map(this::stripe)
+                .distinct()
+                .sorted()
+                .map(stripe -> locks[stripe])
+                .collect(Collectors.toList());
+        held.forEach(ReentrantLock::lock);
+        return held;
+    }
+
+    private boolean releaseAfterCompletion(Set<Long> itemIds, List<ReentrantLock> held) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    itemIds.forEach(trees::invalidate);
+                }
+                held.forEach(ReentrantLock::unlock);
+            }
+        });
+        return true;
+    }
+
+    private ReentrantLock lockFor(long itemId) {
+        return locks[stripe(itemId)];
+    }
+
+    private int stripe(long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), locks.length);
+    }
+
+    private BookingIntervalTree load(long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        bookingRepository
+                .findAllByItemIdAndStatusInAndEndAfter(itemId, BookingStatus.ACTIVE, LocalDateTime.now())
+                .forEach(booking -> tree.add(booking.getId(), booking.getStart(), booking.getEnd()));
+        log.debug("Загружено бронирований: {} для вещи с id: {}.", tree.size(), itemId);
+        return tree;
+    }
+
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryView;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.service.ItemMapper;
@@ -37,6 +39,17 @@ public class BookingMapper {
         return shortBookingDto;
     }
 
+    public static BookingSummaryDto toBookingSummaryDto(BookingSummaryView summary) {
+        return BookingSummaryDto.builder()
+                .all(summary.getTotal())
+                .current(summary.getCurrent())
+                .past(summary.getPast())
+                .future(summary.getFuture())
+                .waiting(summary.getWaiting())
+                .rejected(summary.getRejected())
+                .build();
+    }
+
     public static Booking toBooking(BookingDto bookingDto) {
         Booking booking = new Booking();
         booking.setStart(bookingDto.getStart());
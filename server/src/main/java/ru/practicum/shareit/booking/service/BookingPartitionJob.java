@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.partitions.enabled", havingValue = "true")
+public class BookingPartitionJob {
+
+    private static final String ARCHIVE = "bookings_archive";
+    private static final String PREFIX = ARCHIVE + "_p";
+    private static final String DEFAULT_PARTITION = ARCHIVE + "_default";
+    private static final String COLUMNS = "id, start_date, end_date, item_id, booker_id, status, version";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private final int batchSize;
+
+    public BookingPartitionJob(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               BookingTimelineCache bookingTimelineCache,
+                               BookingSummaryCache bookingSummaryCache,
+                               @Value("${shareit.booking.partitions.months-ahead:3}") int monthsAhead,
+                               @Value("${shareit.booking.partitions.archive-after-months:12}") int archiveAfterMonths,
+                               @Value("${shareit.booking.partitions.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.bookingTimelineCache = bookingTimelineCache;
+        this.bookingSummaryCache = bookingSummaryCache;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        maintain(YearMonth.now());
+    }
+
+    void maintain(YearMonth now) {
+        YearMonth horizon = now.minusMonths(archiveAfterMonths);
+        Set<YearMonth> needed = pending(horizon);
+        for (YearMonth month = horizon; !month.isAfter(horizon.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            needed.add(month);
+        }
+        needed.removeAll(partitions());
+        needed.forEach(this::create);
+        int archived = 0;
+        List<Long> moved;
+        do {
+            moved = transactionTemplate.execute(status -> jdbcTemplate.queryForList(
+                    "WITH moved AS (DELETE FROM bookings WHERE id IN (" +
+                            "SELECT id FROM bookings WHERE end_date < ? ORDER BY id LIMIT ?) " +
+                            "RETURNING " + COLUMNS + "), " +
+                            "archived AS (INSERT INTO " + ARCHIVE + " (" + COLUMNS + ") " +
+                            "SELECT " + COLUMNS + " FROM moved) " +
+                            "SELECT item_id FROM moved",
+                    Long.class, startOf(horizon), batchSize));
+            if (moved == null || moved.isEmpty()) {
+                break;
+            }
+            archived += moved.size();
+            new HashSet<>(moved).forEach(bookingTimelineCache::evict);
+        } while (moved.size() == batchSize);
+        if (archived > 0) {
+            bookingSummaryCache.evictAll();
+        }
+        log.debug("В архив перенесено бронирований: {}.", archived);
+    }
+
+    private Set<YearMonth> pending(YearMonth horizon) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT to_char(end_date, 'YYYYMM') FROM bookings " +
+                        "WHERE end_date < ?", String.class, startOf(horizon)).stream()
+                .map(suffix -> YearMonth.parse(suffix, SUFFIX))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private Set<YearMonth> partitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = '" + ARCHIVE + "'", String.class).stream()
+                .map(BookingPartitionJob::toMonth)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private void create(YearMonth month) {
+        String name = toName(month);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + ARCHIVE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " " +
+                    "WHERE end_date >= ? AND end_date < ? RETURNING " + COLUMNS + ") " +
+                    "INSERT INTO " + name + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved",
+                    startOf(month), startOf(month.plusMonths(1)));
+            jdbcTemplate.execute("ALTER TABLE " + ARCHIVE + " ATTACH PARTITION " + name + " FOR VALUES " +
+                    "FROM ('" + startOf(month) + "') TO ('" + startOf(month.plusMonths(1)) + "')");
+        });
+        log.debug("Создана секция архива бронирований {}.", name);
+    }
+
+    private static LocalDateTime startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    private static String toName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    private static YearMonth toMonth(String name) {
+        if (!name.matches(PREFIX + "\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+    }
+
+}
@@ -1,22 +1,38 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
 
     BookingDto create(long userId, BookingDto bookingDto);
 
+    List<BookingDto> createBatch(long userId, BookingBatchDto batchDto);
+
     BookingDto read(long userId, long bookingId);
 
-    Collection<BookingDto> readAll(long userId, BookingState state, int from, int size);
+    Collection<BookingDto> readAll(long userId, BookingState state, boolean history, int from, int size);
+
+    BookingSummaryDto readSummary(long userId);
 
     BookingDto updateStatus(long userId, long bookingId, boolean approved);
 
+    List<BookingStatusResultDto> updateStatuses(long userId, List<BookingStatusUpdateDto> updates);
+
     void delete(long userId, long bookingId);
 
-    Collection<BookingDto> readForOwner(long userId, BookingState state, int from, int size);
+    SseEmitter subscribe(long userId);
+
+    Collection<BookingDto> readForOwner(long userId, BookingState state, boolean history, int from, int size);
+
+    BookingSummaryDto readSummaryForOwner(long userId);
 
 }
@@ -1,15 +1,30 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.ConcurrentUpdateException;
 import ru.practicum.shareit.exception.IncorrectDateTimeException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -19,19 +34,38 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.exception.Constant.BOOKING_CONFLICT;
+import static ru.practicum.shareit.exception.Constant.BOOKING_OVERLAP;
 import static ru.practicum.shareit.exception.Constant.NOT_FOUND_BOOKING;
+import static ru.practicum.shareit.exception.Constant.NOT_FOUND_ITEM;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String LOCK_CONFLICTS = "shareit.booking.lock.conflicts";
+
     private final BookingRepository bookingRepository;
     private final ItemService itemService;
     private final UserService userService;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingCalendar bookingCalendar;
+    private final BookingEventBroker bookingEventBroker;
+    private final ActiveBookingIndex activeBookingIndex;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${shareit.booking.lock.retries:2}")
+    private int lockRetries;
 
     @Override
     public BookingDto create(long userId, BookingDto bookingDto) {
@@ -50,11 +84,63 @@ public class BookingServiceImpl implements BookingService {
         booking.setItem(item);
         booking.setBooker(user);
         booking.setStatus(BookingStatus.WAITING);
-        Booking saved = bookingRepository.save(booking);
+        Booking saved = bookingIntervalIndex.reserve(booking, this::save);
+        bookingTimelineCache.put(saved);
+        bookingCalendar.evict(item.getId());
+        activeBookingIndex.add(saved);
+        bookingSummaryCache.evict(saved);
+        bookingEventBroker.publish(BookingEventType.CREATED, saved);
         log.debug("Бронирование создано с id: {}.", saved.getId());
         return BookingMapper.toBookingDto(saved);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDto> createBatch(long userId, BookingBatchDto batchDto) {
+        if (!batchDto.getEnd().isAfter(batchDto.getStart())) {
+            throw new IncorrectDateTimeException();
+        }
+        User user = userService.getUserById(userId);
+        Set<Long> itemIds = new LinkedHashSet<>(batchDto.getItemIds());
+        Map<Long, Item> items = itemService.getItemsByIds(itemIds);
+        List<Booking> bookings = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            Item item = items.get(itemId);
+            if (item == null) {
+                throw new NotFoundException(String.format(NOT_FOUND_ITEM, itemId));
+            }
+            if (item.getAvailable().equals(false)) {
+                throw new NotAvailableException("Не доступна для бронирования.");
+            }
+            if (item.getOwner().getId() == userId) {
+                throw new NotFoundException("Пользователь является владельцем вещи.");
+            }
+            bookings.add(Booking.builder()
+                    .start(batchDto.getStart())
+                    .end(batchDto.getEnd())
+                    .item(item)
+                    .booker(user)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        List<Booking> saved;
+        try {
+            saved = bookingIntervalIndex.reserveAll(bookings, this::saveAll);
+        } catch (RuntimeException e) {
+            itemIds.forEach(bookingIntervalIndex::evict);
+            throw e;
+        }
+        afterCommit(() -> saved.forEach(booking -> {
+            bookingTimelineCache.put(booking);
+            bookingCalendar.evict(booking.getItem().getId());
+            activeBookingIndex.add(booking);
+            bookingSummaryCache.evict(booking);
+            bookingEventBroker.publish(BookingEventType.CREATED, booking);
+        }));
+        log.debug("Создано бронирований: {}.", saved.size());
+        return saved.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    }
+
     @Override
     public BookingDto read(long userId, long bookingId) {
         Booking booking = getBookingById(bookingId);
@@ -67,7 +153,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<BookingDto> readAll(long userId, BookingState state, int from, int size) {
+    public Collection<BookingDto> readAll(long userId, BookingState state, boolean history, int from, int size) {
         userService.userIsExist(userId);
         PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
         final LocalDateTime time = LocalDateTime.now();
@@ -77,37 +163,106 @@ public class BookingServiceImpl implements BookingService {
                 bookings = bookingRepository.findAllByBookerIdAndStartAfter(userId, time, page);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(userId, time, time, page);
+                bookings = activeBookingIndex.findByBooker(userId, page)
+                        .map(this::findAllByIdInOrder)
+                        .orElseGet(() -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(userId, time,
+                                time, page));
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBefore(userId, time, page);
+                bookings = history
+                        ? bookingRepository.findAllByBookerIdAndEndBeforeWithHistory(userId, time, unsorted(page))
+                        : bookingRepository.findAllByBookerIdAndEndBefore(userId, time, page);
                 break;
             case WAITING:
             case REJECTED:
                 bookings = bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.valueOf(state.toString()), page);
                 break;
             default:
-                bookings = bookingRepository.findAllByBookerId(userId, page);
+                bookings = history
+                        ? bookingRepository.findAllByBookerIdWithHistory(userId, unsorted(page))
+                        : bookingRepository.findAllByBookerId(userId, page);
                 break;
         }
         log.debug("Всего бронирований: {}.", bookings.size());
         return BookingMapper.toBookingDto(bookings);
     }
 
+    @Override
+    public BookingSummaryDto readSummary(long userId) {
+        userService.userIsExist(userId);
+        BookingSummaryDto summary = bookingSummaryCache.getForBooker(userId);
+        log.debug("Сводка бронирований для пользователя с id: {}: {}.", userId, summary);
+        return summary;
+    }
+
     public BookingDto updateStatus(long userId, long bookingId, boolean approved) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return tryUpdateStatus(userId, bookingId, approved);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                meterRegistry.counter(LOCK_CONFLICTS, "endpoint", "updateStatus").increment();
+                if (attempt >= lockRetries) {
+                    throw new ConcurrentUpdateException(String.format(BOOKING_CONFLICT, bookingId));
+                }
+                log.debug("Конфликт версий бронирования с id: {}, повтор {}.", bookingId, attempt + 1);
+            }
+        }
+    }
+
+    private BookingDto tryUpdateStatus(long userId, long bookingId, boolean approved) {
         Booking booking = getBookingById(bookingId);
         if (booking.getItem().getOwner().getId() != userId) {
             throw new NotOwnerException();
         }
-        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
-            throw new NotAvailableException("Статус уже установлен.");
+        String error = statusError(booking);
+        if (error != null) {
+            throw new NotAvailableException(error);
         }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking saved = bookingRepository.save(booking);
+        Booking saved = bookingIntervalIndex.reserve(booking, this::save);
+        bookingTimelineCache.put(saved);
+        bookingCalendar.evict(saved.getItem().getId());
+        bookingSummaryCache.evict(saved);
+        bookingEventBroker.publish(BookingEventType.STATUS_CHANGED, saved);
         log.debug("Статус обновлен: {}", booking.getStatus());
         return BookingMapper.toBookingDto(saved);
     }
 
+    @Override
+    @Transactional
+    public List<BookingStatusResultDto> updateStatuses(long userId, List<BookingStatusUpdateDto> updates) {
+        userService.userIsExist(userId);
+        Set<Long> ids = updates.stream().map(BookingStatusUpdateDto::getBookingId).collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllForOwnerByIdIn(userId, ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingStatusResultDto> results = new ArrayList<>(updates.size());
+        Map<Long, Booking> changed = new LinkedHashMap<>();
+        for (BookingStatusUpdateDto update : updates) {
+            Booking booking = bookings.get(update.getBookingId());
+            if (booking == null) {
+                results.add(new BookingStatusResultDto(update.getBookingId(), null,
+                        String.format(NOT_FOUND_BOOKING, update.getBookingId())));
+                continue;
+            }
+            String error = statusError(booking);
+            if (error == null) {
+                booking.setStatus(Boolean.TRUE.equals(update.getApproved())
+                        ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                changed.put(booking.getId(), booking);
+            }
+            results.add(new BookingStatusResultDto(booking.getId(), booking.getStatus(), error));
+        }
+        List<Booking> saved = bookingIntervalIndex.reserveAll(new ArrayList<>(changed.values()), this::saveAll);
+        afterCommit(() -> saved.forEach(booking -> {
+            bookingTimelineCache.put(booking);
+            bookingCalendar.evict(booking.getItem().getId());
+            bookingSummaryCache.evict(booking);
+            bookingEventBroker.publish(BookingEventType.STATUS_CHANGED, booking);
+        }));
+        log.debug("Статус обновлен у {} из {} бронирований.", changed.size(), updates.size());
+        return results;
+    }
+
     @Override
     public void delete(long userId, long bookingId) {
         Booking booking = getBookingById(bookingId);
@@ -115,21 +270,37 @@ public class BookingServiceImpl implements BookingService {
             throw new NotOwnerException();
         } else {
             bookingRepository.deleteById(bookingId);
+            bookingTimelineCache.evict(booking.getItem().getId());
+            bookingIntervalIndex.remove(booking);
+            bookingCalendar.evict(booking.getItem().getId());
+            activeBookingIndex.remove(booking);
+            bookingSummaryCache.evict(booking);
+            bookingEventBroker.publish(BookingEventType.DELETED, booking);
             log.debug("Бронирование с id: {} удалено", bookingId);
         }
     }
 
-    public Collection<BookingDto> readForOwner(long userId, BookingState state, int from, int size) {
+    @Override
+    public SseEmitter subscribe(long userId) {
+        userService.userIsExist(userId);
+        return bookingEventBroker.subscribe(userId);
+    }
+
+    public Collection<BookingDto> readForOwner(long userId, BookingState state, boolean history, int from, int size) {
         userService.userIsExist(userId);
         Collection<Booking> bookings;
         PageRequest page = PageRequest.of(from / size, size, Sort.by("start").descending());
         LocalDateTime time = LocalDateTime.now();
         switch (state) {
             case PAST:
-                bookings = bookingRepository.findAllForOwnerPast(userId, time, page);
+                bookings = history
+                        ? bookingRepository.findAllForOwnerPastWithHistory(userId, time, unsorted(page))
+                        : bookingRepository.findAllForOwnerPast(userId, time, page);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findAllForOwnerCurrent(userId, time, page);
+                bookings = activeBookingIndex.findByOwner(userId, page)
+                        .map(this::findAllByIdInOrder)
+                        .orElseGet(() -> bookingRepository.findAllForOwnerCurrent(userId, time, page));
                 break;
             case FUTURE:
                 bookings = bookingRepository.findAllForOwnerFuture(userId, time, page);
@@ -139,13 +310,100 @@ public class BookingServiceImpl implements BookingService {
                 bookings = bookingRepository.findAllForOwnerState(BookingStatus.valueOf(state.toString()), userId, page);
                 break;
             default:
-                bookings = bookingRepository.findAllForOwner(userId, page);
+                bookings = history
+                        ? bookingRepository.findAllForOwnerWithHistory(userId, unsorted(page))
+                        : bookingRepository.findAllForOwner(userId, page);
                 break;
         }
         log.debug("Всего бронирований: {} для владельца вещи с id {}.", bookings.size(), userId);
         return BookingMapper.toBookingDto(bookings);
     }
 
+    @Override
+    public BookingSummaryDto readSummaryForOwner(long userId) {
+        userService.userIsExist(userId);
+        BookingSummaryDto summary = bookingSummaryCache.getForOwner(userId);
+        log.debug("Сводка бронирований для владельца вещей с id: {}: {}.", userId, summary);
+        return summary;
+    }
+
+    private Booking save(Booking booking) {
+        try {
+            return bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            bookingIntervalIndex.evict(booking.getItem().getId());
+            throw new BookingOverlapException(BOOKING_OVERLAP);
+        }
+    }
+
+    private List<Booking> saveAll(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<Booking> saved = bookingRepository.saveAll(bookings);
+            bookingRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            bookings.forEach(booking -> bookingIntervalIndex.evict(booking.getItem().getId()));
+            throw new BookingOverlapException(BOOKING_OVERLAP);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            meterRegistry.counter(LOCK_CONFLICTS, "endpoint", "updateStatuses").increment();
+            throw new ConcurrentUpdateException(String.format(BOOKING_CONFLICT, e.getIdentifier()));
+        }
+    }
+
+    private List<Booking> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        return ids.stream().map(bookings::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static PageRequest unsorted(PageRequest page) {
+        return PageRequest.of(page.getPageNumber(), page.getPageSize());
+    }
+
+    private static String statusError(Booking booking) {
+        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
+            return "Статус уже установлен.";
+        }
+        if (booking.getStatus().equals(BookingStatus.EXPIRED)) {
+            return "Бронирование истекло.";
+        }
+        return null;
+    }
+
+    private static boolean isOverlapViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Booking getBookingById(long bookingId) {
         return bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format(NOT_FOUND_BOOKING, bookingId)));
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class BookingSummaryCache {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingSummaryDto> bookers;
+    private final Cache<Long, BookingSummaryDto> owners;
+
+    public BookingSummaryCache(BookingRepository bookingRepository,
+                               @Value("${shareit.booking.summary.maximum-size:10000}") long maximumSize,
+                               @Value("${shareit.booking.summary.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.bookers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public BookingSummaryDto getForBooker(long bookerId) {
+        return bookers.get(bookerId, id -> BookingMapper.toBookingSummaryDto(
+                bookingRepository.countStatesByBookerId(id, LocalDateTime.now())));
+    }
+
+    public BookingSummaryDto getForOwner(long ownerId) {
+        return owners.get(ownerId, id -> BookingMapper.toBookingSummaryDto(
+                bookingRepository.countStatesForOwner(id, LocalDateTime.now())));
+    }
+
+    public void evict(Booking booking) {
+        bookers.invalidate(booking.getBooker().getId());
+        owners.invalidate(booking.getItem().getOwner().getId());
+    }
+
+    public void evictAll() {
+        bookers.invalidateAll();
+        owners.invalidateAll();
+        log.debug("Сводки бронирований сброшены.");
+    }
+
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+public class BookingTimeline {
+
+    private final NavigableMap<LocalDateTime, Summary> bookings = new TreeMap<>();
+
+    public synchronized void put(long id, long bookerId, LocalDateTime start, LocalDateTime end) {
+        bookings.merge(start, new Summary(id, bookerId, end),
+                (current, added) -> current.id == id || added.end.isAfter(current.end) ? added : current);
+    }
+
+    public synchronized Optional<ShortBookingDto> last(LocalDateTime time) {
+        NavigableMap<LocalDateTime, Summary> started = bookings.headMap(time, false);
+        started.values().stream()
+                .max(Comparator.comparing(summary -> summary.end))
+                .ifPresent(latest -> started.values().removeIf(summary -> summary != latest));
+        return Optional.ofNullable(bookings.lowerEntry(time)).map(Map.Entry::getValue).map(Summary::toDto);
+    }
+
+    public synchronized Optional<ShortBookingDto> next(LocalDateTime time) {
+        return Optional.ofNullable(bookings.higherEntry(time)).map(Map.Entry::getValue).map(Summary::toDto);
+    }
+
+    private static class Summary {
+
+        private final long id;
+        private final long bookerId;
+        private final LocalDateTime end;
+
+        Summary(long id, long bookerId, LocalDateTime end) {
+            this.id = id;
+            this.bookerId = bookerId;
+            this.end = end;
+        }
+
+        ShortBookingDto toDto() {
+            return new ShortBookingDto(id, bookerId);
+        }
+
+    }
+
+}
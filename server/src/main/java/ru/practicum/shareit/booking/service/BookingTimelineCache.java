@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BookingTimelineCache {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingTimeline> timelines;
+
+    public BookingTimelineCache(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.timeline.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.booking.timeline.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public BookingTimeline get(long itemId) {
+        return get(Set.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, BookingTimeline> get(Set<Long> itemIds) {
+        return timelines.getAll(itemIds, this::load);
+    }
+
+    public void put(Booking booking) {
+        BookingTimeline timeline = timelines.getIfPresent(booking.getItem().getId());
+        if (timeline != null) {
+            timeline.put(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+        }
+    }
+
+    public void evict(long itemId) {
+        timelines.invalidate(itemId);
+    }
+
+    private Map<Long, BookingTimeline> load(Iterable<? extends Long> keys) {
+        Set<Long> itemIds = new HashSet<>();
+        keys.forEach(itemIds::add);
+        Map<Long, BookingTimeline> loaded = itemIds.stream()
+                .collect(Collectors.toMap(Function.identity(), itemId -> new BookingTimeline()));
+        bookingRepository.findTimelineByItemIdIn(itemIds, LocalDateTime.now())
+                .forEach(booking -> loaded.get(booking.getItemId()).put(booking.getId(), booking.getBookerId(),
+                        booking.getStartDate(), booking.getEndDate()));
+        log.debug("Загружены бронирования для вещей: {}.", itemIds);
+        return loaded;
+    }
+
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+class TimeWheel<T> {
+
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<List<Deque<Timer<T>>>> levels = new ArrayList<>();
+    private final NavigableMap<Long, List<T>> overflow = new TreeMap<>();
+    private long currentTick;
+
+    TimeWheel(int wheelSize, int levelCount, long startTick) {
+        this.wheelSize = wheelSize;
+        this.spans = new long[levelCount + 1];
+        this.currentTick = startTick;
+        long span = 1;
+        for (int level = 0; level <= levelCount; level++) {
+            spans[level] = span;
+            span *= wheelSize;
+        }
+        for (int level = 0; level < levelCount; level++) {
+            List<Deque<Timer<T>>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new ArrayDeque<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    boolean schedule(long deadlineTick, T task) {
+        long delay = deadlineTick - currentTick;
+        if (delay <= 0) {
+            return false;
+        }
+        for (int level = 0; level < levels.size(); level++) {
+            if (delay < spans[level + 1]) {
+                levels.get(level).get(slot(deadlineTick, level)).add(new Timer<>(deadlineTick, task));
+                return true;
+            }
+        }
+        overflow.computeIfAbsent(deadlineTick, tick -> new ArrayList<>()).add(task);
+        return true;
+    }
+
+    void advance(long nowTick, Consumer<T> expired) {
+        while (currentTick < nowTick) {
+            currentTick++;
+            int top = levels.size() - 1;
+            if (currentTick % spans[top] == 0) {
+                Map<Long, List<T>> due = overflow.headMap(currentTick + spans[top + 1], false);
+                due.forEach((tick, tasks) -> tasks.forEach(task -> place(tick, task, expired)));
+                due.clear();
+            }
+            for (int level = top; level > 0; level--) {
+                if (currentTick % spans[level] == 0) {
+                    Deque<Timer<T>> slot = levels.get(level).get(slot(currentTick, level));
+                    Timer<T> timer;
+                    while ((timer = slot.poll()) != null) {
+                        place(timer.deadlineTick, timer.task, expired);
+                    }
+                }
+            }
+            Deque<Timer<T>> slot = levels.get(0).get(slot(currentTick, 0));
+            Timer<T> timer;
+            while ((timer = slot.poll()) != null) {
+                expired.accept(timer.task);
+            }
+        }
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    private void place(long deadlineTick, T task, Consumer<T> expired) {
+        if (!schedule(deadlineTick, task)) {
+            expired.accept(task);
+        }
+    }
+
+    private int slot(long tick, int level) {
+        return (int) ((tick / spans[level]) % wheelSize);
+    }
+
+    private static class Timer<T> {
+
+        private final long deadlineTick;
+        private final T task;
+
+        Timer(long deadlineTick, T task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+    }
+
+}
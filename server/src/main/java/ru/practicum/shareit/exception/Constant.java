@@ -9,5 +9,7 @@ public class Constant {
     public static final String NOT_FOUND_ITEM = "Вещь с id: %d не найдена.";
     public static final String NOT_FOUND_BOOKING = "Бронирование с id: %d не найдено.";
     public static final String NOT_FOUND_ITEM_REQUEST = "Запрос вещи с id: %d не найден.";
+    public static final String BOOKING_OVERLAP = "Вещь уже забронирована на это время.";
+    public static final String BOOKING_CONFLICT = "Бронирование с id: %d изменено параллельным запросом.";
 
 }
@@ -2,11 +2,16 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Slf4j
@@ -32,11 +37,17 @@ public class ItemController {
     }
 
     @GetMapping
-    public Collection<ItemDto> readAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                       @RequestParam(defaultValue = "0") int from,
-                                       @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<Collection<ItemDto>> readAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(defaultValue = "0") int from,
+                                                       @RequestParam(defaultValue = "10") int size,
+                                                       @RequestParam(required = false) String cursor) {
         log.debug("ReadAll");
-        return itemService.readAll(userId, from, size);
+        Collection<ItemDto> items = cursor == null
+                ? itemService.readAll(userId, from, size)
+                : itemService.readAllAfter(userId, Cursor.decodeId(cursor), size);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPage(items, size, item -> Cursor.encode(item.getId())))
+                .body(items);
     }
 
     @PatchMapping("/{itemId}")
@@ -54,13 +65,43 @@ public class ItemController {
         itemService.delete(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto readAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @PathVariable long itemId,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime to) {
+        log.debug("{}/ReadAvailability({}, {})", itemId, from, to);
+        return itemService.readAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public Collection<ItemDto> search(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                      @RequestParam String text,
-                                      @RequestParam(defaultValue = "0") int from,
-                                      @RequestParam(defaultValue = "10") int size) {
-        log.debug("Search({})", text);
-        return itemService.search(userId, text, from, size);
+    public ResponseEntity<Collection<ItemDto>> search(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestParam String text,
+                                                      @RequestParam(defaultValue = "0") int from,
+                                                      @RequestParam(defaultValue = "10") int size,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime start,
+                                                      @RequestParam(required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime end) {
+        log.debug("Search({}, {}, {})", text, start, end);
+        Collection<ItemDto> items;
+        if (start == null && end == null) {
+            items = cursor == null
+                    ? itemService.search(userId, text, from, size)
+                    : itemService.searchAfter(userId, text, Cursor.decodeId(cursor), size);
+        } else {
+            items = cursor == null
+                    ? itemService.searchFree(userId, text, start, end, from, size)
+                    : itemService.searchFreeAfter(userId, text, start, end, Cursor.decodeId(cursor), size);
+        }
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPage(items, size, item -> Cursor.encode(item.getId())))
+                .body(items);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -71,4 +112,23 @@ public class ItemController {
         return itemService.createComment(userId, itemId, commentDto);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Collection<CommentDto>> readComments(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @PathVariable long itemId,
+                                                               @RequestParam(defaultValue = "10") int size,
+                                                               @RequestParam(required = false) String cursor) {
+        log.debug("{}/ReadComments()", itemId);
+        Collection<CommentDto> comments;
+        if (cursor == null) {
+            comments = itemService.readComments(userId, itemId, size);
+        } else {
+            Cursor.Position position = Cursor.decodePosition(cursor);
+            comments = itemService.readCommentsBefore(userId, itemId, position.getCreated(), position.getId(), size);
+        }
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPage(comments, size,
+                        comment -> Cursor.encode(comment.getCreated(), comment.getId())))
+                .body(comments);
+    }
+
 }
@@ -16,6 +16,7 @@ public class ItemDto {
     private ShortBookingDto lastBooking;
     private ShortBookingDto nextBooking;
     private Collection<CommentDto> comments;
+    private long commentCount;
     private Long requestId;
 
 }
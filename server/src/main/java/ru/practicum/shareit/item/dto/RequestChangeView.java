@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+public interface RequestChangeView {
+
+    Long getRequestId();
+
+    Long getChangeSeq();
+
+}
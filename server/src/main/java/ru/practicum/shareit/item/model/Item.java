@@ -38,4 +38,10 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    private long commentCount;
+
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private long changeSeq;
+
 }
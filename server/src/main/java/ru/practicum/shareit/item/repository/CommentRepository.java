@@ -1,17 +1,25 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
-import java.util.Collection;
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    Collection<Comment> findAllByItemId(long itemId);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAllByItemIdOrderByCreatedDescIdDesc(long itemId, Pageable page);
 
-    Collection<Comment> findAllByItemIdIn(Set<Long> itemIds);
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment as c where c.item.id = ?1 " +
+            "and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findAllByItemIdBefore(long itemId, LocalDateTime created, long id, Pageable page);
 
 }
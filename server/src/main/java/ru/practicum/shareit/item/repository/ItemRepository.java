@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.RequestChangeView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -15,13 +21,75 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i from Item as i " +
             "where i.available = true " +
             "and (lower(i.name) like lower (concat('%', ?1, '%')) " +
-            "or lower(i.description) like lower (concat('%', ?1, '%')))")
-    List<Item> search(String text, Pageable page);
+            "or lower(i.description) like lower (concat('%', ?1, '%'))) " +
+            "and i.id > ?2 " +
+            "order by i.id")
+    List<Item> search(String text, long afterId, Pageable page);
+
+    @Query(value = "select * from items as i " +
+            "where i.is_available = true " +
+            "and (lower(i.name) like concat('%', lower(?1), '%') " +
+            "or lower(i.description) like concat('%', lower(?1), '%')) " +
+            "and i.id > ?2 " +
+            "order by i.id", nativeQuery = true)
+    List<Item> searchTrigram(String text, long afterId, Pageable page);
+
+    @Query("select i from Item as i " +
+            "where i.available = true " +
+            "and (lower(i.name) like lower (concat('%', ?1, '%')) " +
+            "or lower(i.description) like lower (concat('%', ?1, '%'))) " +
+            "and i.id > ?2 " +
+            "and not exists (select b from Booking as b where b.item = i " +
+            "and b.status in ?5 and b.start < ?4 and b.end > ?3) " +
+            "order by i.id")
+    List<Item> searchFree(String text, long afterId, LocalDateTime start, LocalDateTime end,
+                          Set<BookingStatus> busy, Pageable page);
+
+    @Query(value = "select * from items as i " +
+            "where i.is_available = true " +
+            "and (lower(i.name) like concat('%', lower(?1), '%') " +
+            "or lower(i.description) like concat('%', lower(?1), '%')) " +
+            "and i.id > ?2 " +
+            "and not exists (select 1 from bookings as b where b.item_id = i.id " +
+            "and b.status in ?5 and b.start_date < ?4 and b.end_date > ?3) " +
+            "order by i.id", nativeQuery = true)
+    List<Item> searchFreeTrigram(String text, long afterId, LocalDateTime start, LocalDateTime end,
+                                 Collection<String> busy, Pageable page);
+
+    @Query("select i from Item as i " +
+            "where i.id in ?1 " +
+            "and not exists (select b from Booking as b where b.item = i " +
+            "and b.status in ?4 and b.start < ?3 and b.end > ?2) " +
+            "order by i.id")
+    List<Item> findFreeByIdIn(Collection<Long> ids, LocalDateTime start, LocalDateTime end,
+                              Set<BookingStatus> busy);
 
     List<Item> findAllByOwnerId(Long owner, Pageable page);
 
+    List<Item> findAllByOwnerIdAndIdGreaterThan(Long owner, long afterId, Pageable page);
+
+    Collection<Item> findAllByAvailableTrue();
+
     Collection<Item> findAllByRequestRequestorId(Long requestorId);
 
     Collection<Item> findAllByRequestId(Long requestId);
 
+    @EntityGraph(attributePaths = {"owner", "request", "request.requestor"})
+    List<Item> findAllByRequestIdIn(Set<Long> requestIds);
+
+    @Query("select i.id from Item as i where i.id in ?1")
+    Set<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Query("select i.request.id as requestId, i.changeSeq as changeSeq from Item as i " +
+            "where i.request.requestor.id <> ?1 and i.changeSeq > ?2 " +
+            "order by i.changeSeq")
+    List<RequestChangeView> findRequestChangesAfter(Long userId, long changeSeq, Pageable page);
+
+    @Query("select coalesce(max(i.changeSeq), 0) from Item as i")
+    long findMaxChangeSeq();
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Item as i set i.commentCount = i.commentCount + 1 where i.id = ?1")
+    void incrementCommentCount(long itemId);
+
 }
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.item.service;
 
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.service.BookingMapper;
+import ru.practicum.shareit.booking.service.BookingTimeline;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ShortItemDto;
 import ru.practicum.shareit.item.model.Comment;
@@ -9,8 +8,6 @@ import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class ItemMapper {
@@ -25,6 +22,7 @@ public class ItemMapper {
         itemDto.setDescription(item.getDescription());
         itemDto.setAvailable(item.getAvailable());
         itemDto.setRequestId(item.getRequest() == null ? null : item.getRequest().getId());
+        itemDto.setCommentCount(item.getCommentCount());
         return itemDto;
     }
 
@@ -48,31 +46,25 @@ public class ItemMapper {
         return item;
     }
 
-    public static ItemDto toFullItemDto(Item item, Collection<Booking> bookings, Collection<Comment> comments) {
+    public static ItemDto toFullItemDto(Item item, BookingTimeline bookings, Collection<Comment> comments) {
         ItemDto itemDto = new ItemDto();
         itemDto.setId(item.getId());
         itemDto.setName(item.getName());
         itemDto.setDescription(item.getDescription());
         itemDto.setAvailable(item.getAvailable());
 
-        if (bookings != null && !bookings.isEmpty()) {
+        if (bookings != null) {
             LocalDateTime time = LocalDateTime.now();
 
-            Optional<Booking> last = bookings.stream()
-                    .filter(booking -> booking.getStart().isBefore(time))
-                    .max(Comparator.comparing(Booking::getEnd));
-
-            if (last.isPresent()) {
-                itemDto.setLastBooking(BookingMapper.toShortBookingDto(last.get()));
-
-                Optional<Booking> next = bookings.stream()
-                        .filter(booking -> booking.getStart().isAfter(time))
-                        .min(Comparator.comparing(Booking::getStart));
-
-                next.ifPresent(booking -> itemDto.setNextBooking(BookingMapper.toShortBookingDto(booking)));
-            }
+            bookings.last(time).ifPresent(last -> {
+                itemDto.setLastBooking(last);
+                bookings.next(time).ifPresent(itemDto::setNextBooking);
+            });
+        }
+        if (comments != null) {
+            itemDto.setComments(CommentMapper.toCommentDto(comments));
         }
-        itemDto.setComments(CommentMapper.toCommentDto(comments));
+        itemDto.setCommentCount(item.getCommentCount());
         return itemDto;
     }
 
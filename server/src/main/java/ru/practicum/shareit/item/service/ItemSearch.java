@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearch {
+
+    List<Item> search(String text, long afterId, Pageable page);
+
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, long afterId, Pageable page);
+
+    void index(Item item);
+
+    void remove(long itemId);
+
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search", havingValue = "index")
+public class ItemSearchIndex implements ItemSearch {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final NavigableSet<Long> ids = new TreeSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Collection<Item> available = itemRepository.findAllByAvailableTrue();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            ids.clear();
+            available.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Индекс поиска вещей построен, вещей: {}.", available.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            delete(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                put(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            delete(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, long afterId, Pageable page) {
+        String query = text.toLowerCase();
+        List<Long> matched;
+        lock.readLock().lock();
+        try {
+            matched = candidates(query).tailSet(afterId, false).stream()
+                    .filter(id -> entries.get(id).matches(query))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Item> items = new ArrayList<>();
+        long skip = page.getOffset();
+        int from = 0;
+        while (from < matched.size() && items.size() < page.getPageSize()) {
+            int to = (int) Math.min(matched.size(),
+                    from + Math.min(CHUNK_SIZE, skip + page.getPageSize() - items.size()));
+            List<Long> chunk = matched.subList(from, to);
+            Map<Long, Item> loaded = itemRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(Item::getId, item -> item));
+            for (Long id : chunk) {
+                Item item = loaded.get(id);
+                if (item == null) {
+                    remove(id);
+                } else if (skip > 0) {
+                    skip--;
+                } else {
+                    items.add(item);
+                }
+            }
+            from = to;
+        }
+        return items;
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, long afterId, Pageable page) {
+        String query = text.toLowerCase();
+        List<Long> matched;
+        lock.readLock().lock();
+        try {
+            matched = candidates(query).tailSet(afterId, false).stream()
+                    .filter(id -> entries.get(id).matches(query))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Item> free = new ArrayList<>();
+        long skip = page.getOffset();
+        for (int from = 0; from < matched.size() && free.size() < page.getPageSize(); from += CHUNK_SIZE) {
+            List<Long> chunk = matched.subList(from, Math.min(from + CHUNK_SIZE, matched.size()));
+            for (Item item : itemRepository.findFreeByIdIn(chunk, start, end, BookingStatus.ACTIVE)) {
+                if (skip > 0) {
+                    skip--;
+                } else if (free.size() < page.getPageSize()) {
+                    free.add(item);
+                }
+            }
+        }
+        return free;
+    }
+
+    private NavigableSet<Long> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return ids;
+        }
+        NavigableSet<Long> smallest = ids;
+        for (String gram : grams(query)) {
+            NavigableSet<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return Collections.emptyNavigableSet();
+            }
+            if (posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    private void put(Item item) {
+        Entry entry = new Entry(item.getName().toLowerCase(), item.getDescription().toLowerCase());
+        entries.put(item.getId(), entry);
+        ids.add(item.getId());
+        entry.grams().forEach(gram -> postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(item.getId()));
+    }
+
+    private void delete(long itemId) {
+        Entry entry = entries.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        ids.remove(itemId);
+        entry.grams().forEach(gram -> {
+            NavigableSet<Long> posting = postings.get(gram);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class Entry {
+
+        private final String name;
+        private final String description;
+
+        Entry(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+    }
+
+}
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.RequestChangeView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
 public interface ItemService {
 
@@ -14,18 +19,39 @@ public interface ItemService {
 
     Collection<ItemDto> readAll(long userId, int from, int size);
 
+    Collection<ItemDto> readAllAfter(long userId, long lastId, int size);
+
     ItemDto update(long userId, long itemId, ItemDto itemDto);
 
     void delete(long userId, long itemId);
 
     Collection<ItemDto> search(long userId, String text, int from, int size);
 
+    Collection<ItemDto> searchAfter(long userId, String text, long lastId, int size);
+
+    Collection<ItemDto> searchFree(long userId, String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    Collection<ItemDto> searchFreeAfter(long userId, String text, LocalDateTime start, LocalDateTime end, long lastId,
+                                        int size);
+
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
 
+    Collection<CommentDto> readComments(long userId, long itemId, int size);
+
+    Collection<CommentDto> readCommentsBefore(long userId, long itemId, LocalDateTime created, long lastId, int size);
+
+    ItemAvailabilityDto readAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
+
     Item getItemById(long itemId);
 
+    Map<Long, Item> getItemsByIds(Collection<Long> itemIds);
+
     Collection<Item> findAllByRequestRequestorId(long userId);
 
     Collection<Item> findAllByRequestId(long requestId);
 
+    Collection<Item> findAllByRequestIdIn(Set<Long> requestIds);
+
+    Collection<RequestChangeView> findRequestChangesAfter(long userId, long changeSeq, int size);
+
 }
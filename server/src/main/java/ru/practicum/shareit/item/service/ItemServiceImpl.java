@@ -2,20 +2,31 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ActiveBookingIndex;
+import ru.practicum.shareit.booking.service.BookingCalendar;
+import ru.practicum.shareit.booking.service.BookingTimeline;
+import ru.practicum.shareit.booking.service.BookingTimelineCache;
+import ru.practicum.shareit.exception.IncorrectDateTimeException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.exception.UncompletedBookingException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.RequestChangeView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestFeedCache;
+import ru.practicum.shareit.request.service.RequestMatcher;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -35,8 +46,17 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final BookingCalendar bookingCalendar;
+    private final ActiveBookingIndex activeBookingIndex;
     private final UserService userService;
     private final RequestRepository requestRepository;
+    private final ItemSearch itemSearch;
+    private final RequestMatcher requestMatcher;
+    private final RequestFeedCache requestFeedCache;
+
+    @Value("${shareit.item.comments.preview-size:10}")
+    private int commentsPreviewSize;
 
     @Override
     public ItemDto create(long userId, ItemDto itemDto) {
@@ -48,6 +68,9 @@ public class ItemServiceImpl implements ItemService {
                             String.format(NOT_FOUND_ITEM_REQUEST, itemDto.getRequestId()))));
         }
         Item savedItem = itemRepository.save(item);
+        itemSearch.index(savedItem);
+        requestMatcher.onItemCreated(savedItem);
+        evictRequestFeed(savedItem);
         log.debug("Вещь добавлена с id: {}.", savedItem.getId());
         return ItemMapper.toItemDto(savedItem);
     }
@@ -55,13 +78,11 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDto read(long userId, long itemId) {
         Item item = getItemById(itemId);
-        Collection<Booking> itemBookings;
-        if (item.getOwner().getId() == userId) {
-            itemBookings = new ArrayList<>(bookingRepository.findAllByItemIdIn(Set.of(item.getId())));
-        } else {
-            itemBookings = Collections.emptyList();
-        }
-        Collection<Comment> itemComments = commentRepository.findAllByItemId(itemId);
+        BookingTimeline itemBookings = item.getOwner().getId() == userId
+                ? bookingTimelineCache.get(item.getId())
+                : null;
+        Collection<Comment> itemComments = commentRepository
+                .findAllByItemIdOrderByCreatedDescIdDesc(itemId, PageRequest.of(0, commentsPreviewSize));
         ItemDto itemDto = ItemMapper.toFullItemDto(item, itemBookings, itemComments);
         log.debug("Вещь с id: {} найдена.", itemId);
         return itemDto;
@@ -69,23 +90,14 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public Collection<ItemDto> readAll(long userId, int from, int size) {
-        PageRequest page = PageRequest.of(from / size, size);
-        Map<Long, Item> itemsByOwner = itemRepository.findAllByOwnerId(userId, page)
-                .stream().collect(Collectors.toMap(Item::getId, Function.identity()));
-
-        Map<Long, List<Booking>> bookingsByItems = bookingRepository.findAllByItemIdIn(itemsByOwner.keySet())
-                .stream().collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
-        Map<Long, List<Comment>> commentsByItems = commentRepository.findAllByItemIdIn(itemsByOwner.keySet())
-                .stream().collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        PageRequest page = PageRequest.of(from / size, size, Sort.by("id"));
+        return toOwnerItemDto(userId, itemRepository.findAllByOwnerId(userId, page));
+    }
 
-        List<ItemDto> collect = itemsByOwner.values().stream()
-                .map(item -> ItemMapper.toFullItemDto(item,
-                        bookingsByItems.getOrDefault(item.getId(), Collections.emptyList()),
-                        commentsByItems.getOrDefault(item.getId(), Collections.emptyList())))
-                .collect(Collectors.toList());
-        log.debug("Всего вещей: {} пользователя с id: {}.", collect.size(), userId);
-        return collect;
+    @Override
+    public Collection<ItemDto> readAllAfter(long userId, long lastId, int size) {
+        PageRequest page = PageRequest.of(0, size, Sort.by("id"));
+        return toOwnerItemDto(userId, itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, lastId, page));
     }
 
     @Override
@@ -106,6 +118,10 @@ public class ItemServiceImpl implements ItemService {
             updatedItem.setAvailable(item.getAvailable());
         }
         Item saved = itemRepository.save(updatedItem);
+        itemSearch.index(saved);
+        requestMatcher.onItemUpdated(saved);
+        evictRequestFeed(saved);
+        touchRequest(saved);
         log.debug("Вещь с id: {} обновлена.", itemId);
         return ItemMapper.toItemDto(saved);
 
@@ -119,45 +135,97 @@ public class ItemServiceImpl implements ItemService {
             throw new NotOwnerException("Пользователь не является владельцем вещи.");
         }
         itemRepository.deleteById(itemId);
+        activeBookingIndex.removeByItem(itemId);
+        itemSearch.remove(itemId);
+        requestMatcher.onItemDeleted(itemId);
+        evictRequestFeed(item);
+        touchRequest(item);
         log.debug("Вещь с id: {} удалена.", itemId);
     }
 
     @Override
     public Collection<ItemDto> search(long userId, String text, int from, int size) {
-        if (text.isBlank()) {
-            return List.of();
-        }
-        PageRequest page = PageRequest.of(from / size, size);
-        Collection<Item> searched = itemRepository.search(text, page);
-        log.debug("Вещей найден: {}.", searched.size());
-        return ItemMapper.toItemDto(searched);
+        return search(text, 0, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public Collection<ItemDto> searchAfter(long userId, String text, long lastId, int size) {
+        return search(text, lastId, PageRequest.of(0, size));
+    }
+
+    @Override
+    public Collection<ItemDto> searchFree(long userId, String text, LocalDateTime start, LocalDateTime end, int from,
+                                          int size) {
+        return searchFree(text, start, end, 0, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public Collection<ItemDto> searchFreeAfter(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                               long lastId, int size) {
+        return searchFree(text, start, end, lastId, PageRequest.of(0, size));
     }
 
     @Override
+    @Transactional
     public CommentDto createComment(long userId, long itemId, CommentDto commentDto) {
         Comment comment = CommentMapper.toComment(commentDto);
         User user = userService.getUserById(userId);
         Item item = getItemById(itemId);
         LocalDateTime time = LocalDateTime.now();
-        if (bookingRepository
-                .findAllByBookerIdAndItemIdAndEndIsBefore(userId, itemId, time)
-                .isEmpty()) {
+        if (!bookingRepository.existsCompletedByBookerIdAndItemId(userId, itemId, time)) {
             throw new UncompletedBookingException("Нельзя создать отзыв для незавершенного бронирования.");
         }
         comment.setAuthor(user);
         comment.setItem(item);
         comment.setCreated(time);
         Comment savedComment = commentRepository.save(comment);
+        itemRepository.incrementCommentCount(itemId);
         log.debug("Комментарий с id: {} сохранен.", savedComment.getId());
         return CommentMapper.toCommentDto(comment);
     }
 
+    @Override
+    public Collection<CommentDto> readComments(long userId, long itemId, int size) {
+        getItemById(itemId);
+        List<Comment> comments = commentRepository
+                .findAllByItemIdOrderByCreatedDescIdDesc(itemId, PageRequest.of(0, size));
+        log.debug("Комментариев найдено: {} для вещи с id: {}.", comments.size(), itemId);
+        return CommentMapper.toCommentDto(comments);
+    }
+
+    @Override
+    public Collection<CommentDto> readCommentsBefore(long userId, long itemId, LocalDateTime created, long lastId,
+                                                     int size) {
+        getItemById(itemId);
+        List<Comment> comments = commentRepository
+                .findAllByItemIdBefore(itemId, created, lastId, PageRequest.of(0, size));
+        log.debug("Комментариев найдено: {} для вещи с id: {}.", comments.size(), itemId);
+        return CommentMapper.toCommentDto(comments);
+    }
+
+    @Override
+    public ItemAvailabilityDto readAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IncorrectDateTimeException();
+        }
+        getItemById(itemId);
+        ItemAvailabilityDto availability = bookingCalendar.availability(itemId, from, to);
+        log.debug("Календарь вещи с id: {} построен.", itemId);
+        return availability;
+    }
+
     @Override
     public Item getItemById(long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format(NOT_FOUND_ITEM, itemId)));
     }
 
+    @Override
+    public Map<Long, Item> getItemsByIds(Collection<Long> itemIds) {
+        return itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
+
     @Override
     public Collection<Item> findAllByRequestRequestorId(long userId) {
         return itemRepository.findAllByRequestRequestorId(userId);
@@ -168,4 +236,69 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findAllByRequestId(requestId);
     }
 
+    @Override
+    public Collection<Item> findAllByRequestIdIn(Set<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return List.of();
+        }
+        return itemRepository.findAllByRequestIdIn(requestIds);
+    }
+
+    @Override
+    public Collection<RequestChangeView> findRequestChangesAfter(long userId, long changeSeq, int size) {
+        return itemRepository.findRequestChangesAfter(userId, changeSeq, PageRequest.of(0, size));
+    }
+
+    private void evictRequestFeed(Item item) {
+        if (item.getRequest() != null) {
+            requestFeedCache.onRequestChanged(item.getRequest().getRequestor().getId(), item.getRequest().getId());
+        }
+    }
+
+    private void touchRequest(Item item) {
+        if (item.getRequest() != null) {
+            requestRepository.touch(item.getRequest().getId());
+        }
+    }
+
+    private Collection<ItemDto> toOwnerItemDto(long userId, List<Item> items) {
+        Map<Long, Item> itemsByOwner = items.stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (first, second) -> first,
+                        LinkedHashMap::new));
+
+        if (itemsByOwner.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BookingTimeline> bookingsByItems = bookingTimelineCache.get(itemsByOwner.keySet());
+
+        List<ItemDto> collect = itemsByOwner.values().stream()
+                .map(item -> ItemMapper.toFullItemDto(item, bookingsByItems.get(item.getId()), null))
+                .collect(Collectors.toList());
+        log.debug("Всего вещей: {} пользователя с id: {}.", collect.size(), userId);
+        return collect;
+    }
+
+    private Collection<ItemDto> search(String text, long afterId, PageRequest page) {
+        if (text.isBlank()) {
+            return List.of();
+        }
+        Collection<Item> searched = itemSearch.search(text, afterId, page);
+        log.debug("Вещей найден: {}.", searched.size());
+        return ItemMapper.toItemDto(searched);
+    }
+
+    private Collection<ItemDto> searchFree(String text, LocalDateTime start, LocalDateTime end, long afterId,
+                                           PageRequest page) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IncorrectDateTimeException();
+        }
+        if (text.isBlank()) {
+            return List.of();
+        }
+        Collection<Item> searched = itemSearch.searchFree(text, start, end, afterId, page);
+        log.debug("Свободных вещей найдено: {}.", searched.size());
+        return ItemMapper.toItemDto(searched);
+    }
+
 }
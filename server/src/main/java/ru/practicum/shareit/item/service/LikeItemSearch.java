@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, long afterId, Pageable page) {
+        return itemRepository.search(text, afterId, page);
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, long afterId, Pageable page) {
+        return itemRepository.searchFree(text, afterId, start, end, BookingStatus.ACTIVE, page);
+    }
+
+    @Override
+    public void index(Item item) {
+        // The database owns indexing: LIKE queries read the items table directly.
+    }
+
+    @Override
+    public void remove(long itemId) {
+        // The database owns indexing: LIKE queries read the items table directly.
+    }
+
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search", havingValue = "trigram")
+public class TrigramItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, long afterId, Pageable page) {
+        return itemRepository.searchTrigram(text, afterId, page);
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, long afterId, Pageable page) {
+        return itemRepository.searchFreeTrigram(text, afterId, start, end,
+                BookingStatus.ACTIVE.stream().map(Enum::name).collect(Collectors.toList()), page);
+    }
+
+    @Override
+    public void index(Item item) {
+        // The database owns indexing through the pg_trgm index on items.
+    }
+
+    @Override
+    public void remove(long itemId) {
+        // The database owns indexing through the pg_trgm index on items.
+    }
+
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import ru.practicum.shareit.exception.NotAvailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+public class Cursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "_";
+
+    private Cursor() {
+    }
+
+    public static String encode(long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static long decodeId(String cursor) {
+        try {
+            long id = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (id < 0) {
+                throw new NotAvailableException("Некорректный курсор: " + cursor);
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new NotAvailableException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public static String encode(LocalDateTime created, long id) {
+        return encode(created + SEPARATOR + id);
+    }
+
+    public static Position decodePosition(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new NotAvailableException("Некорректный курсор: " + cursor);
+            }
+            return new Position(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new NotAvailableException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public static <T> HttpHeaders nextPage(Collection<T> page, int size, Function<T, String> encoder) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!page.isEmpty() && page.size() == size) {
+            T last = page instanceof List ? ((List<T>) page).get(page.size() - 1)
+                    : page.stream().reduce((first, second) -> second).orElseThrow();
+            headers.set(NEXT_CURSOR_HEADER, encoder.apply(last));
+        }
+        return headers;
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Position {
+
+        private final LocalDateTime created;
+        private final long id;
+
+    }
+
+}
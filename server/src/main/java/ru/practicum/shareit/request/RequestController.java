@@ -2,8 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestChangesDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.service.RequestService;
 
 import java.util.Collection;
@@ -36,12 +40,55 @@ public class RequestController {
         return requestService.read(userId, itemId);
     }
 
+    @GetMapping("/{requestId}/matches")
+    public Collection<RequestMatchDto> readMatches(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @PathVariable Long requestId,
+                                                   @RequestParam(defaultValue = "0") int from,
+                                                   @RequestParam(defaultValue = "10") int size) {
+        log.debug("{}/ReadMatches()", requestId);
+        return requestService.readMatches(userId, requestId, from, size);
+    }
+
     @GetMapping("/all")
-    public Collection<ItemRequestDto> readAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(defaultValue = "0") int from,
-                                              @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<Collection<ItemRequestDto>> readAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestParam(defaultValue = "0") int from,
+                                                              @RequestParam(defaultValue = "10") int size,
+                                                              @RequestParam(required = false) String cursor) {
         log.debug("ReadAll");
-        return requestService.readAll(userId, from, size);
+        Collection<ItemRequestDto> requests;
+        if (cursor == null) {
+            requests = requestService.readAll(userId, from, size);
+        } else {
+            Cursor.Position position = Cursor.decodePosition(cursor);
+            requests = requestService.readAllAfter(userId, position.getCreated(), position.getId(), size);
+        }
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPage(requests, size,
+                        request -> Cursor.encode(request.getCreated(), request.getId())))
+                .body(requests);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Collection<ItemRequestDto>> search(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam String text,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(required = false) String cursor) {
+        log.debug("Search({})", text);
+        Collection<ItemRequestDto> requests = cursor == null
+                ? requestService.search(userId, text, from, size)
+                : requestService.searchAfter(userId, text, Cursor.decodeId(cursor), size);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextPage(requests, size, request -> Cursor.encode(request.getId())))
+                .body(requests);
+    }
+
+    @GetMapping("/all/changes")
+    public RequestChangesDto readChanges(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestParam(required = false) String since,
+                                         @RequestParam(defaultValue = "100") int size) {
+        log.debug("ReadChanges");
+        return requestService.readChanges(userId, since == null ? 0 : Cursor.decodeId(since), size);
     }
 
 }
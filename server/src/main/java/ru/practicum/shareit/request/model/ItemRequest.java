@@ -31,4 +31,7 @@ public class ItemRequest {
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private long changeSeq;
+
 }
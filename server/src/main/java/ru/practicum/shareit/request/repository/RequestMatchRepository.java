@@ -0,0 +1,26 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.RequestMatch;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "item.request.requestor"})
+    List<RequestMatch> findAllByRequestIdAndItemAvailableTrue(long requestId, Pageable page);
+
+    @Query("select m.item.id from RequestMatch as m where m.request.id = ?1 and m.item.id in ?2")
+    Set<Long> findItemIdsByRequestId(long requestId, Collection<Long> itemIds);
+
+    @Query("select m.request.id from RequestMatch as m where m.item.id = ?1 and m.request.id in ?2")
+    Set<Long> findRequestIdsByItemId(long itemId, Collection<Long> requestIds);
+
+}
@@ -1,18 +1,65 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
     Collection<ItemRequest> findAllByRequestorId(long userId);
 
+    @EntityGraph(attributePaths = "requestor")
     List<ItemRequest> findAllByRequestorIdIsNot(Long userId, Pageable page);
 
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest as r " +
+            "where not exists (select i from Item as i where i.request = r)")
+    List<ItemRequest> findAllOpen();
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest as r where r.requestor.id <> ?1 " +
+            "and (r.created > ?2 or (r.created = ?2 and r.id > ?3)) " +
+            "order by r.created, r.id")
+    List<ItemRequest> findAllByRequestorIdIsNotAfter(Long userId, LocalDateTime created, long id, Pageable page);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest as r where r.requestor.id <> ?1 and r.changeSeq > ?2 order by r.changeSeq")
+    List<ItemRequest> findAllByRequestorIdIsNotChangedAfter(Long userId, long changeSeq, Pageable page);
+
+    @Query("select coalesce(max(r.changeSeq), 0) from ItemRequest as r")
+    long findMaxChangeSeq();
+
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest as r")
+    List<ItemRequest> findAllWithRequestor();
+
+    @Query("select r.id from ItemRequest as r where r.id in ?1")
+    Set<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Query(value = "select * from requests as r " +
+            "where r.requestor_id <> ?1 " +
+            "and to_tsvector('simple', r.description) @@ to_tsquery('simple', ?2) " +
+            "and r.id > ?3 " +
+            "order by r.id", nativeQuery = true)
+    List<ItemRequest> searchFullText(Long userId, String query, long afterId, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("update ItemRequest as r set r.changeSeq = function('nextval', 'change_seq') where r.id = ?1")
+    void touch(long requestId);
+
 }
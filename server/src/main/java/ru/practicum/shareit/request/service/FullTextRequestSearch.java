@@ -0,0 +1,40 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.request.search", havingValue = "fulltext")
+public class FullTextRequestSearch implements RequestSearch {
+
+    private final RequestRepository requestRepository;
+
+    @Override
+    public List<ItemRequest> search(long userId, String text, long afterId, Pageable page) {
+        Set<String> tokens = RequestMatcher.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return requestRepository.searchFullText(userId, String.join(" & ", new TreeSet<>(tokens)), afterId, page);
+    }
+
+    @Override
+    public void index(ItemRequest request) {
+        // The database owns indexing through the tsvector index on requests.
+    }
+
+    @Override
+    public void removeByRequestor(long userId) {
+        // The database drops the requests and their tsvector entries with the user.
+    }
+
+}
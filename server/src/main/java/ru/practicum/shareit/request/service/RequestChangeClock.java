@@ -0,0 +1,81 @@
+package ru.practicum.shareit.request.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+@Component
+public class RequestChangeClock {
+
+    private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final Duration safetyLag;
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    public RequestChangeClock(RequestRepository requestRepository,
+                              ItemRepository itemRepository,
+                              @Value("${shareit.request.changes.safety-lag:10s}") Duration safetyLag) {
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+        this.safetyLag = safetyLag;
+    }
+
+    @Scheduled(fixedRateString = "${shareit.request.changes.sample-rate:PT1S}")
+    public void sample() {
+        if (!safetyLag.isZero()) {
+            long changeSeq = Math.max(requestRepository.findMaxChangeSeq(), itemRepository.findMaxChangeSeq());
+            record(Instant.now(), changeSeq);
+        }
+    }
+
+    public long settled() {
+        return settled(Instant.now());
+    }
+
+    synchronized void record(Instant time, long changeSeq) {
+        samples.addLast(new Sample(time, changeSeq));
+        Instant horizon = time.minus(safetyLag);
+        while (samples.size() > 1) {
+            Sample first = samples.removeFirst();
+            if (samples.getFirst().time.isAfter(horizon)) {
+                samples.addFirst(first);
+                break;
+            }
+        }
+    }
+
+    synchronized long settled(Instant now) {
+        if (safetyLag.isZero()) {
+            return Long.MAX_VALUE;
+        }
+        Instant horizon = now.minus(safetyLag);
+        long settled = 0;
+        for (Sample sample : samples) {
+            if (sample.time.isAfter(horizon)) {
+                break;
+            }
+            settled = sample.changeSeq;
+        }
+        return settled;
+    }
+
+    private static class Sample {
+
+        private final Instant time;
+        private final long changeSeq;
+
+        Sample(Instant time, long changeSeq) {
+            this.time = time;
+            this.changeSeq = changeSeq;
+        }
+
+    }
+
+}
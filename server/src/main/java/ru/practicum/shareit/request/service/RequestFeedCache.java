@@ -0,0 +1,148 @@
+package ru.practicum.shareit.request.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class RequestFeedCache {
+
+    private final Cache<Long, List<ItemRequestDto>> own;
+    private final Cache<FeedPage, List<ItemRequestDto>> pages;
+    private final Map<Long, Set<FeedPage>> pagesByRequest = new HashMap<>();
+    private final Set<FeedPage> partialPages = new HashSet<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public RequestFeedCache(MeterRegistry meterRegistry,
+                            @Value("${shareit.request.feed.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.request.feed.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.own = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .<Long, List<ItemRequestDto>>build(), "shareit.request.own");
+        this.pages = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .removalListener(this::onPageRemoved)
+                .<FeedPage, List<ItemRequestDto>>build(), "shareit.request.all");
+    }
+
+    public List<ItemRequestDto> getOwn(long requestorId, Supplier<List<ItemRequestDto>> loader) {
+        List<ItemRequestDto> cached = own.getIfPresent(requestorId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        List<ItemRequestDto> loaded = loader.get();
+        own.put(requestorId, loaded);
+        if (generation.get() != loadedAt) {
+            own.invalidate(requestorId);
+        }
+        return loaded;
+    }
+
+    public List<ItemRequestDto> getPage(long userId, int from, int size, Supplier<List<ItemRequestDto>> loader) {
+        return getPage(new FeedPage(userId, null, from, size), loader);
+    }
+
+    public List<ItemRequestDto> getPageAfter(long userId, LocalDateTime created, long lastId, int size,
+                                             Supplier<List<ItemRequestDto>> loader) {
+        return getPage(new FeedPage(userId, created, lastId, size), loader);
+    }
+
+    public void onRequestCreated(long requestorId) {
+        generation.incrementAndGet();
+        own.invalidate(requestorId);
+        Set<FeedPage> partial;
+        synchronized (pagesByRequest) {
+            partial = new HashSet<>(partialPages);
+        }
+        pages.invalidateAll(partial);
+        log.debug("Лента запросов сброшена для нового запроса пользователя с id: {}.", requestorId);
+    }
+
+    public void onRequestChanged(long requestorId, long requestId) {
+        generation.incrementAndGet();
+        own.invalidate(requestorId);
+        Set<FeedPage> containing;
+        synchronized (pagesByRequest) {
+            containing = new HashSet<>(pagesByRequest.getOrDefault(requestId, Set.of()));
+        }
+        pages.invalidateAll(containing);
+        log.debug("Лента запросов сброшена для запроса с id: {}.", requestId);
+    }
+
+    private List<ItemRequestDto> getPage(FeedPage key, Supplier<List<ItemRequestDto>> loader) {
+        List<ItemRequestDto> cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        List<ItemRequestDto> loaded = loader.get();
+        synchronized (pagesByRequest) {
+            pages.put(key, loaded);
+            loaded.forEach(request -> pagesByRequest.computeIfAbsent(request.getId(), id -> new HashSet<>()).add(key));
+            if (loaded.size() < key.size) {
+                partialPages.add(key);
+            }
+        }
+        if (generation.get() != loadedAt) {
+            pages.invalidate(key);
+        }
+        return loaded;
+    }
+
+    private void onPageRemoved(FeedPage key, List<ItemRequestDto> page, RemovalCause cause) {
+        if (key == null || page == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        synchronized (pagesByRequest) {
+            if (pages.asMap().containsKey(key)) {
+                return;
+            }
+            page.forEach(request -> pagesByRequest.computeIfPresent(request.getId(), (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            }));
+            partialPages.remove(key);
+        }
+    }
+
+    @EqualsAndHashCode
+    private static class FeedPage {
+
+        private final long userId;
+        private final LocalDateTime created;
+        private final long position;
+        private final int size;
+
+        FeedPage(long userId, LocalDateTime created, long position, int size) {
+            this.userId = userId;
+            this.created = created;
+            this.position = position;
+            this.size = size;
+        }
+
+    }
+
+}
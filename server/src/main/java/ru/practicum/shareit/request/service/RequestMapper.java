@@ -3,7 +3,9 @@ package ru.practicum.shareit.request.service;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
 
 import java.util.Collection;
 
@@ -29,6 +31,14 @@ public class RequestMapper {
         return itemRequestDto;
     }
 
+    public static RequestMatchDto toRequestMatchDto(RequestMatch match) {
+        return RequestMatchDto.builder()
+                .item(ItemMapper.toItemDto(match.getItem()))
+                .score(match.getScore())
+                .created(match.getCreated())
+                .build();
+    }
+
     public static ItemRequest toRequest(ItemRequestDto itemRequestDto) {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setDescription(itemRequestDto.getDescription());
@@ -0,0 +1,252 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class RequestMatcher {
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final int limit;
+
+    private final TokenIndex openRequests = new TokenIndex();
+    private final TokenIndex availableItems = new TokenIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RequestMatcher(RequestRepository requestRepository,
+                          ItemRepository itemRepository,
+                          RequestMatchRepository requestMatchRepository,
+                          @Value("${shareit.request.matches.limit:50}") int limit) {
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+        this.requestMatchRepository = requestMatchRepository;
+        this.limit = limit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Collection<ItemRequest> requests = requestRepository.findAllOpen();
+        Collection<Item> items = itemRepository.findAllByAvailableTrue();
+        lock.writeLock().lock();
+        try {
+            openRequests.clear();
+            availableItems.clear();
+            requests.forEach(request -> openRequests.put(request.getId(), request.getRequestor().getId(),
+                    tokenize(request.getDescription())));
+            items.forEach(this::putItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Индекс сопоставления построен, открытых запросов: {}, вещей: {}.", requests.size(), items.size());
+    }
+
+    public void onRequestCreated(ItemRequest request) {
+        Set<String> tokens = tokenize(request.getDescription());
+        Map<Long, Integer> scores;
+        lock.writeLock().lock();
+        try {
+            openRequests.put(request.getId(), request.getRequestor().getId(), tokens);
+            scores = availableItems.match(tokens, request.getRequestor().getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        retainNew(scores, availableItems, itemRepository::findIdsByIdIn,
+                itemIds -> requestMatchRepository.findItemIdsByRequestId(request.getId(), itemIds));
+        save(scores, itemId -> RequestMatch.builder()
+                .request(request)
+                .item(itemRepository.getReferenceById(itemId)));
+        log.debug("Для запроса с id: {} найдено вещей: {}.", request.getId(), scores.size());
+    }
+
+    public void onItemCreated(Item item) {
+        Map<Long, Integer> scores = Map.of();
+        lock.writeLock().lock();
+        try {
+            if (item.getRequest() != null) {
+                openRequests.remove(item.getRequest().getId());
+            }
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                Set<String> tokens = putItem(item);
+                scores = openRequests.match(tokens, item.getOwner().getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        retainNew(scores, openRequests, requestRepository::findIdsByIdIn,
+                requestIds -> requestMatchRepository.findRequestIdsByItemId(item.getId(), requestIds));
+        save(scores, requestId -> RequestMatch.builder()
+                .request(requestRepository.getReferenceById(requestId))
+                .item(item));
+        log.debug("Для вещи с id: {} найдено запросов: {}.", item.getId(), scores.size());
+    }
+
+    public void onItemUpdated(Item item) {
+        lock.writeLock().lock();
+        try {
+            availableItems.remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                putItem(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onItemDeleted(long itemId) {
+        lock.writeLock().lock();
+        try {
+            availableItems.remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onUserDeleted(long userId) {
+        lock.writeLock().lock();
+        try {
+            openRequests.removeByUser(userId);
+            availableItems.removeByUser(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void retainNew(Map<Long, Integer> scores, TokenIndex index,
+                           Function<Set<Long>, Set<Long>> existing,
+                           Function<Set<Long>, Set<Long>> matched) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        Set<Long> stale = new HashSet<>(scores.keySet());
+        stale.removeAll(existing.apply(scores.keySet()));
+        if (!stale.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                stale.forEach(index::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            scores.keySet().removeAll(stale);
+            log.debug("Из индекса сопоставления удалены отсутствующие в базе id: {}.", stale);
+        }
+        if (!scores.isEmpty()) {
+            scores.keySet().removeAll(matched.apply(scores.keySet()));
+        }
+    }
+
+    private Set<String> putItem(Item item) {
+        Set<String> tokens = tokenize(item.getName() + " " + item.getDescription());
+        availableItems.put(item.getId(), item.getOwner().getId(), tokens);
+        return tokens;
+    }
+
+    private void save(Map<Long, Integer> scores, LongFunction<RequestMatch.RequestMatchBuilder> builder) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        LocalDateTime created = LocalDateTime.now();
+        List<RequestMatch> matches = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(score -> builder.apply(score.getKey())
+                        .score(score.getValue())
+                        .created(created)
+                        .build())
+                .collect(Collectors.toList());
+        requestMatchRepository.saveAll(matches);
+    }
+
+    static Set<String> tokenize(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> token.length() >= MIN_TOKEN_LENGTH)
+                .collect(Collectors.toSet());
+    }
+
+    private static class TokenIndex {
+
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        void put(long id, long userId, Set<String> tokens) {
+            remove(id);
+            entries.put(id, new Entry(userId, tokens));
+            tokens.forEach(token -> postings.computeIfAbsent(token, key -> new HashSet<>()).add(id));
+        }
+
+        void remove(long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            entry.tokens.forEach(token -> {
+                Set<Long> posting = postings.get(token);
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            });
+        }
+
+        void removeByUser(long userId) {
+            entries.entrySet().stream()
+                    .filter(entry -> entry.getValue().userId == userId)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(this::remove);
+        }
+
+        Map<Long, Integer> match(Set<String> tokens, long excludedUserId) {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (String token : tokens) {
+                for (Long id : postings.getOrDefault(token, Set.of())) {
+                    if (entries.get(id).userId != excludedUserId) {
+                        scores.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        void clear() {
+            entries.clear();
+            postings.clear();
+        }
+
+    }
+
+    private static class Entry {
+
+        private final long userId;
+        private final Set<String> tokens;
+
+        Entry(long userId, Set<String> tokens) {
+            this.userId = userId;
+            this.tokens = tokens;
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+public interface RequestSearch {
+
+    List<ItemRequest> search(long userId, String text, long afterId, Pageable page);
+
+    void index(ItemRequest request);
+
+    void removeByRequestor(long userId);
+
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.request.search", havingValue = "index", matchIfMissing = true)
+public class RequestSearchIndex implements RequestSearch {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final RequestRepository requestRepository;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Collection<ItemRequest> requests = requestRepository.findAllWithRequestor();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            requests.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Индекс поиска запросов построен, запросов: {}.", requests.size());
+    }
+
+    @Override
+    public void index(ItemRequest request) {
+        lock.writeLock().lock();
+        try {
+            put(request);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemRequest> search(long userId, String text, long afterId, Pageable page) {
+        Set<String> tokens = RequestMatcher.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<Long> matched;
+        lock.readLock().lock();
+        try {
+            matched = candidates(tokens).tailSet(afterId, false).stream()
+                    .filter(id -> entries.get(id).matches(userId, tokens))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ItemRequest> requests = new ArrayList<>();
+        long skip = page.getOffset();
+        int from = 0;
+        while (from < matched.size() && requests.size() < page.getPageSize()) {
+            int to = (int) Math.min(matched.size(),
+                    from + Math.min(CHUNK_SIZE, skip + page.getPageSize() - requests.size()));
+            List<Long> chunk = matched.subList(from, to);
+            Map<Long, ItemRequest> loaded = requestRepository.findAllByIdIn(chunk).stream()
+                    .collect(Collectors.toMap(ItemRequest::getId, request -> request));
+            for (Long id : chunk) {
+                ItemRequest request = loaded.get(id);
+                if (request == null) {
+                    remove(id);
+                } else if (skip > 0) {
+                    skip--;
+                } else {
+                    requests.add(request);
+                }
+            }
+            from = to;
+        }
+        return requests;
+    }
+
+    @Override
+    public void removeByRequestor(long userId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> owned = entries.entrySet().stream()
+                    .filter(entry -> entry.getValue().userId == userId)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            owned.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private NavigableSet<Long> candidates(Set<String> tokens) {
+        NavigableSet<Long> smallest = null;
+        for (String token : tokens) {
+            NavigableSet<Long> posting = postings.get(token);
+            if (posting == null) {
+                return Collections.emptyNavigableSet();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    private void put(ItemRequest request) {
+        Set<String> tokens = RequestMatcher.tokenize(request.getDescription());
+        entries.put(request.getId(), new Entry(request.getRequestor().getId(), tokens));
+        tokens.forEach(token -> postings.computeIfAbsent(token, key -> new TreeSet<>()).add(request.getId()));
+    }
+
+    private void remove(long requestId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(requestId);
+            if (entry == null) {
+                return;
+            }
+            entry.tokens.forEach(token -> {
+                NavigableSet<Long> posting = postings.get(token);
+                posting.remove(requestId);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static class Entry {
+
+        private final long userId;
+        private final Set<String> tokens;
+
+        Entry(long userId, Set<String> tokens) {
+            this.userId = userId;
+            this.tokens = tokens;
+        }
+
+        boolean matches(long excludedUserId, Set<String> query) {
+            return userId != excludedUserId && tokens.containsAll(query);
+        }
+
+    }
+
+}
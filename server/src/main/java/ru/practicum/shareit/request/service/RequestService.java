@@ -1,8 +1,11 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestChangesDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestService {
@@ -15,6 +18,16 @@ public interface RequestService {
 
     List<ItemRequestDto> readAll(Long userId, int from, int size);
 
+    List<ItemRequestDto> readAllAfter(Long userId, LocalDateTime created, long lastId, int size);
+
+    RequestChangesDto readChanges(Long userId, long changeSeq, int size);
+
+    List<ItemRequestDto> search(Long userId, String text, int from, int size);
+
+    List<ItemRequestDto> searchAfter(Long userId, String text, long lastId, int size);
+
+    List<RequestMatchDto> readMatches(Long userId, Long requestId, int from, int size);
+
     ItemRequest getItemRequestById(Long requestId);
 
 }
@@ -6,19 +6,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.RequestChangeView;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.service.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestChangesDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -32,6 +33,11 @@ public class RequestServiceImpl implements RequestService {
     private final UserService userService;
     private final ItemService itemService;
     private final RequestRepository requestRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final RequestMatcher requestMatcher;
+    private final RequestFeedCache requestFeedCache;
+    private final RequestSearch requestSearch;
+    private final RequestChangeClock requestChangeClock;
 
     @Override
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
@@ -39,6 +45,9 @@ public class RequestServiceImpl implements RequestService {
         itemRequest.setRequestor(userService.getUserById(userId));
         itemRequest.setCreated(LocalDateTime.now());
         ItemRequest saved = requestRepository.save(itemRequest);
+        requestMatcher.onRequestCreated(saved);
+        requestSearch.index(saved);
+        requestFeedCache.onRequestCreated(userId);
         log.debug("Запрос вещи создан.");
         return RequestMapper.toRequestDto(saved);
     }
@@ -46,16 +55,7 @@ public class RequestServiceImpl implements RequestService {
     @Override
     public List<ItemRequestDto> read(Long userId) {
         userService.userIsExist(userId);
-        Map<Long, ItemRequest> collectItemRequest = requestRepository.findAllByRequestorId(userId)
-                .stream().collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
-
-        Map<Long, List<Item>> collectItem = itemService.findAllByRequestRequestorId(userId)
-                .stream().collect(Collectors.groupingBy(item -> item.getRequest().getId()));
-
-        List<ItemRequestDto> itemRequestDto = collectItemRequest.values().stream()
-                .map(itemRequest -> RequestMapper.toRequestDto(itemRequest,
-                        collectItem.getOrDefault(itemRequest.getRequestor().getId(), Collections.emptyList())))
-                .collect(Collectors.toList());
+        List<ItemRequestDto> itemRequestDto = requestFeedCache.getOwn(userId, () -> loadOwn(userId));
         log.debug("Найдено запросов вещей: {}.", itemRequestDto.size());
         return itemRequestDto;
     }
@@ -72,16 +72,78 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     public List<ItemRequestDto> readAll(Long userId, int from, int size) {
-        PageRequest page = PageRequest.of(from, size, Sort.by("created").ascending());
-        List<ItemRequestDto> content = requestRepository.findAllByRequestorIdIsNot(userId, page).stream()
-                .map(RequestMapper::toRequestDto)
-                .peek(itemRequestDto -> itemRequestDto.setItems(
-                        itemService.findAllByRequestId(itemRequestDto.getId())
-                                .stream().map(ItemMapper::toItemDto)
-                                .collect(Collectors.toList())))
+        PageRequest page = PageRequest.of(from / size, size, Sort.by("created", "id").ascending());
+        return requestFeedCache.getPage(userId, from, size,
+                () -> toRequestDto(requestRepository.findAllByRequestorIdIsNot(userId, page)));
+    }
+
+    @Override
+    public List<ItemRequestDto> readAllAfter(Long userId, LocalDateTime created, long lastId, int size) {
+        return requestFeedCache.getPageAfter(userId, created, lastId, size,
+                () -> toRequestDto(requestRepository.findAllByRequestorIdIsNotAfter(userId, created, lastId,
+                        PageRequest.of(0, size))));
+    }
+
+    @Override
+    public RequestChangesDto readChanges(Long userId, long changeSeq, int size) {
+        userService.userIsExist(userId);
+        List<ItemRequest> requests = requestRepository.findAllByRequestorIdIsNotChangedAfter(userId, changeSeq,
+                PageRequest.of(0, size));
+        Collection<RequestChangeView> answers = itemService.findRequestChangesAfter(userId, changeSeq, size);
+
+        List<Map.Entry<Long, Long>> changes = new ArrayList<>();
+        requests.forEach(request -> changes.add(Map.entry(request.getChangeSeq(), request.getId())));
+        answers.forEach(answer -> changes.add(Map.entry(answer.getChangeSeq(), answer.getRequestId())));
+        changes.sort(Map.Entry.comparingByKey());
+        List<Map.Entry<Long, Long>> consumed = changes.subList(0, Math.min(size, changes.size()));
+
+        Map<Long, Long> lastChange = new HashMap<>();
+        consumed.forEach(change -> lastChange.put(change.getValue(), change.getKey()));
+        Map<Long, ItemRequest> changed = requests.stream()
+                .filter(request -> lastChange.containsKey(request.getId()))
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        Set<Long> answered = new HashSet<>(lastChange.keySet());
+        answered.removeAll(changed.keySet());
+        if (!answered.isEmpty()) {
+            requestRepository.findAllByIdIn(answered).forEach(request -> changed.put(request.getId(), request));
+        }
+
+        List<ItemRequest> ordered = changed.values().stream()
+                .sorted(Comparator.comparing(request -> lastChange.get(request.getId())))
                 .collect(Collectors.toList());
-        log.debug("Всего запросов вещей: {}.", content.size());
-        return content;
+        long last = consumed.isEmpty() ? changeSeq : consumed.get(consumed.size() - 1).getKey();
+        long token = Math.max(changeSeq, Math.min(last, requestChangeClock.settled()));
+        boolean full = requests.size() == size || answers.size() == size || changes.size() > size;
+        log.debug("Изменений запросов вещей после {}: {}, токен: {}.", changeSeq, consumed.size(), token);
+        return RequestChangesDto.builder()
+                .requests(toRequestDto(ordered))
+                .token(Cursor.encode(token))
+                .hasMore(full && token > changeSeq)
+                .build();
+    }
+
+    @Override
+    public List<ItemRequestDto> search(Long userId, String text, int from, int size) {
+        return search(userId, text, 0, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public List<ItemRequestDto> searchAfter(Long userId, String text, long lastId, int size) {
+        return search(userId, text, lastId, PageRequest.of(0, size));
+    }
+
+    @Override
+    public List<RequestMatchDto> readMatches(Long userId, Long requestId, int from, int size) {
+        userService.userIsExist(userId);
+        getItemRequestById(requestId);
+        PageRequest page = PageRequest.of(from / size, size,
+                Sort.by(Sort.Direction.DESC, "score").and(Sort.by("id")));
+        List<RequestMatchDto> matches = requestMatchRepository.findAllByRequestIdAndItemAvailableTrue(requestId, page)
+                .stream()
+                .map(RequestMapper::toRequestMatchDto)
+                .collect(Collectors.toList());
+        log.debug("Найдено вещей: {} для запроса с id: {}.", matches.size(), requestId);
+        return matches;
     }
 
     @Override
@@ -90,4 +152,40 @@ public class RequestServiceImpl implements RequestService {
                 .orElseThrow(() -> new NotFoundException(String.format(NOT_FOUND_ITEM_REQUEST, requestId)));
     }
 
+    private List<ItemRequestDto> search(long userId, String text, long afterId, PageRequest page) {
+        if (text.isBlank()) {
+            return List.of();
+        }
+        List<ItemRequest> searched = requestSearch.search(userId, text, afterId, page);
+        log.debug("Найдено запросов вещей: {}.", searched.size());
+        return toRequestDto(searched);
+    }
+
+    private List<ItemRequestDto> loadOwn(long userId) {
+        Map<Long, ItemRequest> collectItemRequest = requestRepository.findAllByRequestorId(userId)
+                .stream().collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        Map<Long, List<Item>> collectItem = itemService.findAllByRequestRequestorId(userId)
+                .stream().collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        return collectItemRequest.values().stream()
+                .map(itemRequest -> RequestMapper.toRequestDto(itemRequest,
+                        collectItem.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemRequestDto> toRequestDto(List<ItemRequest> requests) {
+        Set<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toSet());
+
+        Map<Long, List<Item>> collectItem = itemService.findAllByRequestIdIn(requestIds)
+                .stream().collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        List<ItemRequestDto> content = requests.stream()
+                .map(itemRequest -> RequestMapper.toRequestDto(itemRequest,
+                        collectItem.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+        log.debug("Всего запросов вещей: {}.", content.size());
+        return content;
+    }
+
 }
@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.ActiveBookingIndex;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.service.RequestMatcher;
+import ru.practicum.shareit.request.service.RequestSearch;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -20,6 +23,9 @@ import static ru.practicum.shareit.exception.Constant.NOT_FOUND_USER;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ActiveBookingIndex activeBookingIndex;
+    private final RequestMatcher requestMatcher;
+    private final RequestSearch requestSearch;
 
     @Override
     public UserDto create(UserDto userDto) {
@@ -63,6 +69,9 @@ public class UserServiceImpl implements UserService {
     public void delete(long userId) {
         userIsExist(userId);
         userRepository.deleteById(userId);
+        activeBookingIndex.removeByUser(userId);
+        requestMatcher.onUserDeleted(userId);
+        requestSearch.removeByRequestor(userId);
         log.debug("Пользователь с id: {} удален.", userId);
     }
 
@@ -0,0 +1,30 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS requests_description_fts_idx ON requests USING gin (to_tsvector('simple', description));
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+  EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+  WHERE (status IN ('WAITING', 'APPROVED'));
+
+DROP TABLE IF EXISTS bookings_archive;
+
+CREATE TABLE bookings_archive (
+  id BIGINT NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+  booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  status VARCHAR NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (id, end_date)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS bookings_archive_booker_start_idx ON bookings_archive (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_archive_item_start_idx ON bookings_archive (item_id, start_date DESC);
@@ -1,8 +1,14 @@
 DROP TABLE IF EXISTS bookings;
+DROP TABLE IF EXISTS bookings_archive;
 DROP TABLE IF EXISTS comments;
+DROP TABLE IF EXISTS request_matches;
 DROP TABLE IF EXISTS items;
 DROP TABLE IF EXISTS requests;
 DROP TABLE IF EXISTS users;
+DROP SEQUENCE IF EXISTS bookings_id_seq;
+DROP SEQUENCE IF EXISTS change_seq;
+
+CREATE SEQUENCE IF NOT EXISTS change_seq;
 
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -14,7 +20,8 @@ CREATE TABLE IF NOT EXISTS requests (
   id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   description VARCHAR(255) NOT NULL,
   requestor_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  change_seq BIGINT NOT NULL DEFAULT nextval('change_seq')
 );
 
 CREATE TABLE IF NOT EXISTS items (
@@ -23,16 +30,31 @@ CREATE TABLE IF NOT EXISTS items (
   description VARCHAR(512) NOT NULL,
   is_available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE
+  request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE,
+  comment_count BIGINT NOT NULL DEFAULT 0,
+  change_seq BIGINT NOT NULL DEFAULT nextval('change_seq')
 );
 
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL PRIMARY KEY,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
   booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  status VARCHAR NOT NULL
+  status VARCHAR NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+  id BIGINT NOT NULL PRIMARY KEY,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+  booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  status VARCHAR NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS comments (
@@ -42,3 +64,25 @@ CREATE TABLE IF NOT EXISTS comments (
   author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
   created TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
+
+CREATE TABLE IF NOT EXISTS request_matches (
+  id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  request_id BIGINT NOT NULL REFERENCES requests(id) ON DELETE CASCADE,
+  item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+  score INTEGER NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT request_matches_request_item_uq UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created, id);
+CREATE INDEX IF NOT EXISTS requests_change_seq_idx ON requests (change_seq);
+CREATE INDEX IF NOT EXISTS items_change_seq_idx ON items (change_seq);
+CREATE INDEX IF NOT EXISTS request_matches_request_score_idx ON request_matches (request_id, score DESC, id);
+CREATE INDEX IF NOT EXISTS request_matches_item_idx ON request_matches (item_id);
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS bookings_archive_booker_start_idx ON bookings_archive (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_archive_item_start_idx ON bookings_archive (item_id, start_date DESC);
@@ -10,7 +10,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 
@@ -21,6 +27,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -68,6 +75,26 @@ class BookingControllerITest {
         verify(bookingService).create(userId, bookingDto);
     }
 
+    @SneakyThrows
+    @Test
+    void createBatchWhenInvokeThenReturnOk() {
+        BookingBatchDto batch = new BookingBatchDto(List.of(1L, 2L), bookingDto.getStart(), bookingDto.getEnd());
+        when(bookingService.createBatch(userId, batch)).thenReturn(List.of(bookingDto));
+
+        String result = mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(objectMapper.writeValueAsString(batch))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(bookingDto)), result);
+    }
+
     @SneakyThrows
     @Test
     void readWhenInvokeThenReturnOk() {
@@ -89,7 +116,7 @@ class BookingControllerITest {
     @Test
     void readAllWhenInvokeThenReturnOk() {
         List<BookingDto> bookings = List.of(bookingDto);
-        when(bookingService.readAll(userId, BookingState.ALL, 0, 10)).thenReturn(bookings);
+        when(bookingService.readAll(userId, BookingState.ALL, false, 0, 10)).thenReturn(bookings);
 
         String result = mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -103,7 +130,7 @@ class BookingControllerITest {
                 .getContentAsString();
 
         assertEquals(objectMapper.writeValueAsString(bookings), result);
-        verify(bookingService).readAll(userId, BookingState.ALL, 0, 10);
+        verify(bookingService).readAll(userId, BookingState.ALL, false, 0, 10);
     }
 
     @SneakyThrows
@@ -124,6 +151,42 @@ class BookingControllerITest {
         verify(bookingService).updateStatus(userId, bookingId, true);
     }
 
+    @SneakyThrows
+    @Test
+    void updateStatusesWhenInvokeThenReturnOk() {
+        List<BookingStatusUpdateDto> updates = List.of(new BookingStatusUpdateDto(bookingId, true));
+        List<BookingStatusResultDto> results = List.of(new BookingStatusResultDto(bookingId,
+                BookingStatus.APPROVED, null));
+        when(bookingService.updateStatuses(userId, updates)).thenReturn(results);
+
+        String result = mockMvc.perform(patch("/bookings/status")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(objectMapper.writeValueAsString(updates))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+        verify(bookingService).updateStatuses(userId, updates);
+    }
+
+    @SneakyThrows
+    @Test
+    void streamWhenInvokeThenStartAsync() {
+        when(bookingService.subscribe(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingService).subscribe(userId);
+    }
+
     @SneakyThrows
     @Test
     void deleteWhenInvokeThenReturnOk() {
@@ -138,7 +201,7 @@ class BookingControllerITest {
     @Test
     void readForOwnerWhenInvokeThenReturnOk() {
         List<BookingDto> bookings = List.of(bookingDto);
-        when(bookingService.readForOwner(userId, BookingState.ALL, 0, 10)).thenReturn(bookings);
+        when(bookingService.readForOwner(userId, BookingState.ALL, false, 0, 10)).thenReturn(bookings);
 
         String result = mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -152,7 +215,25 @@ class BookingControllerITest {
                 .getContentAsString();
 
         assertEquals(objectMapper.writeValueAsString(bookings), result);
-        verify(bookingService).readForOwner(userId, BookingState.ALL, 0, 10);
+        verify(bookingService).readForOwner(userId, BookingState.ALL, false, 0, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void readSummaryForOwnerWhenInvokeThenReturnOk() {
+        BookingSummaryDto summary = new BookingSummaryDto(5, 1, 2, 1, 1, 0);
+        when(bookingService.readSummaryForOwner(userId)).thenReturn(summary);
+
+        String result = mockMvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(summary), result);
+        verify(bookingService).readSummaryForOwner(userId);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.booking.repository.BookingQueryPlanIT$SqlCapture")
+class BookingQueryPlanIT {
+
+    private static final String PLAN_ROWS_PROPERTY = "shareit.plan.rows";
+    private static final String BENCHMARK_ROWS_PROPERTY = "shareit.benchmark.rows";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        long rows = Long.getLong(BENCHMARK_ROWS_PROPERTY, Long.getLong(PLAN_ROWS_PROPERTY, 1_000));
+        long users = Math.max(rows / 100, 2);
+        long items = Math.max(rows / 20, 2);
+        jdbcTemplate.update("insert into users (id, name, email) " +
+                "select x, 'user' || x, 'u' || x || '@mail.ru' from system_range(1, ?)", users);
+        jdbcTemplate.update("insert into items (id, name, description, is_available, owner_id) " +
+                "select x, 'item' || x, 'desc' || x, true, mod(x, ?) + 1 from system_range(1, ?)", users, items);
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "select x, dateadd('HOUR', x - ?, now()), dateadd('HOUR', x - ? + 2, now()), " +
+                "mod(x, ?) + 1, mod(x * 7, ?) + 1, 'APPROVED' from system_range(1, ?)",
+                rows / 2, rows / 2, items, users, rows);
+    }
+
+    @Test
+    void stateQueriesUseIndexes() {
+        stateQueries().forEach(query -> {
+            SqlCapture.STATEMENTS.clear();
+            query.getValue().get();
+            assertEquals(1, SqlCapture.STATEMENTS.size(), query.getKey());
+            String plan = explain(SqlCapture.STATEMENTS.get(0));
+            assertFalse(plan.contains("tableScan"),
+                    () -> "Expected index range scans for " + query.getKey() + " in plan:\n" + plan);
+        });
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = BENCHMARK_ROWS_PROPERTY, matches = "\\d+")
+    void stateQueriesBenchmark() {
+        stateQueries().forEach(query -> {
+            query.getValue().get();
+            long started = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                query.getValue().get();
+            }
+            log.info("{}: {} us per query", query.getKey(), (System.nanoTime() - started) / 10_000);
+        });
+    }
+
+    private List<Map.Entry<String, Supplier<?>>> stateQueries() {
+        PageRequest page = PageRequest.of(0, 10, Sort.by("start").descending());
+        LocalDateTime time = LocalDateTime.now();
+        return List.of(
+                entry("booker ALL", () -> bookingRepository.findAllByBookerId(1L, page)),
+                entry("booker CURRENT", () -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(1L, time,
+                        time, page)),
+                entry("booker PAST", () -> bookingRepository.findAllByBookerIdAndEndBefore(1L, time, page)),
+                entry("booker FUTURE", () -> bookingRepository.findAllByBookerIdAndStartAfter(1L, time, page)),
+                entry("booker WAITING", () -> bookingRepository.findAllByBookerIdAndStatus(1L, BookingStatus.WAITING,
+                        page)),
+                entry("owner ALL", () -> bookingRepository.findAllForOwner(1L, page)),
+                entry("owner CURRENT", () -> bookingRepository.findAllForOwnerCurrent(1L, time, page)),
+                entry("owner PAST", () -> bookingRepository.findAllForOwnerPast(1L, time, page)),
+                entry("owner FUTURE", () -> bookingRepository.findAllForOwnerFuture(1L, time, page)),
+                entry("owner WAITING", () -> bookingRepository.findAllForOwnerState(BookingStatus.WAITING, 1L, page)),
+                entry("item ACTIVE", () -> bookingRepository.findAllByItemIdAndStatusInAndEndAfter(1L,
+                        BookingStatus.ACTIVE, time)),
+                entry("item CALENDAR", () -> bookingRepository
+                        .findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(1L, BookingStatus.ACTIVE,
+                                time.plusDays(1), time)));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query("explain " + sql, statement -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, resultSet -> {
+            resultSet.next();
+            return resultSet.getString(1);
+        });
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+}
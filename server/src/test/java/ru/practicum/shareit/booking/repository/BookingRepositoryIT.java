@@ -6,7 +6,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.booking.dto.ActiveBookingView;
+import ru.practicum.shareit.booking.dto.BookingSummaryView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -17,7 +23,10 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @DataJpaTest
 class BookingRepositoryIT {
@@ -31,6 +40,9 @@ class BookingRepositoryIT {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User booker;
 
     private Item item;
@@ -90,6 +102,150 @@ class BookingRepositoryIT {
         Assertions.assertEquals(3, allByItemIdIn.size());
     }
 
+    @Test
+    void findTimelineByItemIdIn() {
+        Map<Long, ItemBookingView> timeline = bookingRepository
+                .findTimelineByItemIdIn(Set.of(item.getId()), LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(ItemBookingView::getId, Function.identity()));
+
+        Assertions.assertEquals(Set.of(bookingCurrent.getId(), bookingFuture.getId()), timeline.keySet());
+        Assertions.assertEquals(item.getId(), timeline.get(bookingCurrent.getId()).getItemId());
+        Assertions.assertEquals(booker.getId(), timeline.get(bookingCurrent.getId()).getBookerId());
+        Assertions.assertEquals(bookingFuture.getStart().withNano(0),
+                timeline.get(bookingFuture.getId()).getStartDate().withNano(0));
+    }
+
+    @Test
+    void findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc() {
+        LocalDateTime time = LocalDateTime.now();
+
+        List<Booking> overlapping = bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                item.getId(), Set.of(BookingStatus.APPROVED), time.plusMinutes(30), time.minusMinutes(30));
+
+        Assertions.assertEquals(List.of(bookingCurrent), overlapping);
+    }
+
+    @Test
+    void findAllByStatusAndStartBeforeAndUpdateStatusByIdIn() {
+        bookingPast.setStatus(BookingStatus.WAITING);
+        bookingFuture.setStatus(BookingStatus.WAITING);
+        bookingRepository.saveAll(List.of(bookingPast, bookingFuture));
+
+        List<ItemBookingView> stale = bookingRepository.findAllByStatusAndStartBefore(BookingStatus.WAITING,
+                LocalDateTime.now(), Pageable.ofSize(10));
+
+        Assertions.assertEquals(1, stale.size());
+        Assertions.assertEquals(bookingPast.getId(), stale.get(0).getId());
+        Assertions.assertEquals(item.getId(), stale.get(0).getItemId());
+        Assertions.assertEquals(1, bookingRepository.updateStatusByIdIn(List.of(bookingPast.getId(),
+                bookingCurrent.getId()), BookingStatus.WAITING, BookingStatus.EXPIRED));
+    }
+
+    @Test
+    void findAllForOwnerByIdIn() {
+        List<Booking> owned = bookingRepository.findAllForOwnerByIdIn(item.getOwner().getId(),
+                List.of(bookingPast.getId(), bookingFuture.getId()));
+
+        Assertions.assertEquals(Set.of(bookingPast, bookingFuture), Set.copyOf(owned));
+        Assertions.assertEquals(List.of(), bookingRepository.findAllForOwnerByIdIn(booker.getId(),
+                List.of(bookingPast.getId())));
+    }
+
+    @Test
+    void saveWhenVersionIsStaleThenOptimisticLockingFailure() {
+        Booking stale = copyOf(bookingFuture);
+        bookingFuture.setStatus(BookingStatus.REJECTED);
+        bookingRepository.saveAndFlush(bookingFuture);
+        stale.setStatus(BookingStatus.APPROVED);
+
+        Assertions.assertEquals(1, bookingFuture.getVersion());
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> bookingRepository.saveAndFlush(stale));
+    }
+
+    @Test
+    void findAllWithHistoryWhenArchivedThenReturnUnion() {
+        Booking archived = bookingRepository.saveAndFlush(Booking.builder()
+                .start(LocalDateTime.now().minusYears(2))
+                .end(LocalDateTime.now().minusYears(2).plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        jdbcTemplate.update("insert into bookings_archive (" + BookingRepository.COLUMNS + ") " +
+                "select " + BookingRepository.COLUMNS + " from bookings where id = ?", archived.getId());
+        jdbcTemplate.update("delete from bookings where id = ?", archived.getId());
+        Long owner = item.getOwner().getId();
+
+        Assertions.assertEquals(3, bookingRepository.findAllByBookerId(booker.getId(), Pageable.unpaged()).size());
+        Assertions.assertEquals(List.of(bookingFuture.getId(), bookingCurrent.getId(), bookingPast.getId(),
+                archived.getId()), ids(bookingRepository.findAllByBookerIdWithHistory(booker.getId(),
+                Pageable.unpaged())));
+        Assertions.assertEquals(List.of(bookingPast.getId(), archived.getId()),
+                ids(bookingRepository.findAllByBookerIdAndEndBeforeWithHistory(booker.getId(), LocalDateTime.now(),
+                        Pageable.unpaged())));
+        Assertions.assertEquals(List.of(bookingFuture.getId(), bookingCurrent.getId()),
+                ids(bookingRepository.findAllForOwnerWithHistory(owner, PageRequest.of(0, 2))));
+        Assertions.assertEquals(List.of(archived.getId()),
+                ids(bookingRepository.findAllForOwnerPastWithHistory(owner, LocalDateTime.now(), PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void existsCompletedWhenOnlyArchivedThenTrue() {
+        Item other = itemRepository.save(Item.builder()
+                .name("other")
+                .description("desc")
+                .available(true)
+                .owner(item.getOwner())
+                .build());
+        Booking archived = bookingRepository.saveAndFlush(Booking.builder()
+                .start(LocalDateTime.now().minusYears(2))
+                .end(LocalDateTime.now().minusYears(2).plusHours(1))
+                .item(other)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        jdbcTemplate.update("insert into bookings_archive (" + BookingRepository.COLUMNS + ") " +
+                "select " + BookingRepository.COLUMNS + " from bookings where id = ?", archived.getId());
+        jdbcTemplate.update("delete from bookings where id = ?", archived.getId());
+
+        Assertions.assertTrue(bookingRepository.existsCompletedByBookerIdAndItemId(booker.getId(), other.getId(),
+                LocalDateTime.now()));
+        Assertions.assertTrue(bookingRepository.existsCompletedByBookerIdAndItemId(booker.getId(), item.getId(),
+                LocalDateTime.now()));
+        Assertions.assertFalse(bookingRepository.existsCompletedByBookerIdAndItemId(item.getOwner().getId(),
+                other.getId(), LocalDateTime.now()));
+    }
+
+    @Test
+    void countStatesByBookerIdAndForOwner() {
+        bookingFuture.setStatus(BookingStatus.WAITING);
+        bookingRepository.saveAndFlush(bookingFuture);
+        LocalDateTime time = LocalDateTime.now();
+
+        BookingSummaryView booker = bookingRepository.countStatesByBookerId(this.booker.getId(), time);
+        BookingSummaryView owner = bookingRepository.countStatesForOwner(item.getOwner().getId(), time);
+        BookingSummaryView empty = bookingRepository.countStatesForOwner(this.booker.getId(), time);
+
+        Assertions.assertEquals(List.of(3L, 1L, 1L, 1L, 1L, 0L), List.of(booker.getTotal(), booker.getCurrent(),
+                booker.getPast(), booker.getFuture(), booker.getWaiting(), booker.getRejected()));
+        Assertions.assertEquals(List.of(3L, 1L, 1L, 1L, 1L, 0L), List.of(owner.getTotal(), owner.getCurrent(),
+                owner.getPast(), owner.getFuture(), owner.getWaiting(), owner.getRejected()));
+        Assertions.assertEquals(0L, empty.getTotal());
+        Assertions.assertEquals(0L, empty.getWaiting());
+    }
+
+    @Test
+    void findAllActiveByEndAfterAndFindAllByIdIn() {
+        List<ActiveBookingView> active = bookingRepository.findAllActiveByEndAfter(LocalDateTime.now());
+
+        Assertions.assertEquals(Set.of(bookingCurrent.getId(), bookingFuture.getId()),
+                active.stream().map(ActiveBookingView::getId).collect(Collectors.toSet()));
+        Assertions.assertEquals(item.getOwner().getId(), active.get(0).getOwnerId());
+        Assertions.assertEquals(Set.of(bookingCurrent, bookingPast), Set.copyOf(bookingRepository.findAllByIdIn(
+                List.of(bookingCurrent.getId(), bookingPast.getId()))));
+    }
+
     @Test
     void findAllByBookerId() {
         Collection<Booking> allByBookerId = bookingRepository.findAllByBookerId(booker.getId(), Pageable.unpaged());
@@ -124,6 +280,22 @@ class BookingRepositoryIT {
         Assertions.assertEquals(List.of(bookingPast), allByBookerIdAndEndBefore);
     }
 
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
+    private static Booking copyOf(Booking booking) {
+        return Booking.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .status(booking.getStatus())
+                .version(booking.getVersion())
+                .build();
+    }
+
     @AfterEach
     void tearDown() {
         userRepository.deleteAll();
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.ActiveBookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveBookingIndexTest {
+
+    private final PageRequest page = PageRequest.of(0, 10);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ActiveBookingIndex activeBookingIndex;
+
+    private LocalDateTime time;
+
+    @BeforeEach
+    void setUp() {
+        activeBookingIndex = new ActiveBookingIndex(bookingRepository);
+        time = LocalDateTime.of(2026, 10, 18, 12, 0);
+    }
+
+    @Test
+    void findWhenNotWarmedUpThenEmpty() {
+        assertEquals(Optional.empty(), activeBookingIndex.findByBooker(1L, page));
+    }
+
+    @Test
+    void warmUpWhenCurrentAndFutureThenActivateOnStart() {
+        when(bookingRepository.findAllActiveByEndAfter(time)).thenReturn(List.of(
+                view(1L, time.minusHours(1), time.plusHours(1)),
+                view(2L, time.plusMinutes(30), time.plusHours(2))));
+
+        activeBookingIndex.warmUp(time);
+
+        assertEquals(Optional.of(List.of(1L)), activeBookingIndex.findByBooker(2L, page));
+        assertEquals(Optional.of(List.of(1L)), activeBookingIndex.findByOwner(3L, page));
+
+        activeBookingIndex.advance(time.plusMinutes(30));
+        assertEquals(Optional.of(List.of(2L, 1L)), activeBookingIndex.findByBooker(2L, page));
+
+        activeBookingIndex.advance(time.plusHours(1));
+        assertEquals(Optional.of(List.of(2L)), activeBookingIndex.findByOwner(3L, page));
+
+        activeBookingIndex.advance(time.plusDays(1));
+        assertEquals(Optional.of(List.of()), activeBookingIndex.findByOwner(3L, page));
+    }
+
+    @Test
+    void addAndRemoveWhenWarmThenIndexUpdated() {
+        when(bookingRepository.findAllActiveByEndAfter(time)).thenReturn(List.of());
+        activeBookingIndex.warmUp(time);
+        Booking booking = Booking.builder()
+                .id(5L)
+                .start(time.minusMinutes(1))
+                .end(time.plusDays(100))
+                .item(Item.builder().id(4L).owner(User.builder().id(3L).build()).build())
+                .booker(User.builder().id(2L).build())
+                .status(BookingStatus.WAITING)
+                .build();
+
+        activeBookingIndex.add(booking);
+        assertEquals(Optional.of(List.of(5L)), activeBookingIndex.findByBooker(2L, page));
+
+        activeBookingIndex.remove(booking);
+        assertEquals(Optional.of(List.of()), activeBookingIndex.findByBooker(2L, page));
+        activeBookingIndex.advance(time.plusDays(101));
+        assertEquals(Optional.of(List.of()), activeBookingIndex.findByOwner(3L, page));
+    }
+
+    @Test
+    void removeByItemAndUserWhenDeletedThenDropSlots() {
+        when(bookingRepository.findAllActiveByEndAfter(time)).thenReturn(List.of(
+                view(1L, time.minusHours(1), time.plusHours(1)),
+                view(2L, time.plusMinutes(30), time.plusHours(2))));
+        activeBookingIndex.warmUp(time);
+
+        activeBookingIndex.removeByItem(5L);
+        assertEquals(Optional.of(List.of(1L)), activeBookingIndex.findByBooker(2L, page));
+
+        activeBookingIndex.removeByItem(4L);
+        activeBookingIndex.advance(time.plusMinutes(30));
+        assertEquals(Optional.of(List.of()), activeBookingIndex.findByBooker(2L, page));
+
+        activeBookingIndex.warmUp(time);
+        activeBookingIndex.removeByUser(3L);
+        assertEquals(Optional.of(List.of()), activeBookingIndex.findByBooker(2L, page));
+    }
+
+    private ActiveBookingView view(long id, LocalDateTime start, LocalDateTime end) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ActiveBookingView.class, Map.of(
+                "id", id,
+                "itemId", 4L,
+                "bookerId", 2L,
+                "ownerId", 3L,
+                "startDate", start,
+                "endDate", end));
+    }
+
+}
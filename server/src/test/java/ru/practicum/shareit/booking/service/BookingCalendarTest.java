@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCalendarTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingCalendar bookingCalendar;
+
+    private final long itemId = 1L;
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final LocalDateTime to = from.plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        bookingCalendar = new BookingCalendar(bookingRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void availabilityWhenBookingsOverlapThenMergeBusyAndReturnGaps() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                eq(itemId), anySet(), eq(to), eq(from)))
+                .thenReturn(List.of(
+                        booking(from.minusHours(2), from.plusHours(1)),
+                        booking(from.plusHours(4), from.plusHours(6)),
+                        booking(from.plusHours(5), from.plusHours(8)),
+                        booking(from.plusHours(8), from.plusHours(9)),
+                        booking(from.plusHours(20), to.plusHours(3))));
+
+        ItemAvailabilityDto actual = bookingCalendar.availability(itemId, from, to);
+
+        assertEquals(List.of(
+                new BookingIntervalDto(from, from.plusHours(1)),
+                new BookingIntervalDto(from.plusHours(4), from.plusHours(9)),
+                new BookingIntervalDto(from.plusHours(20), to)), actual.getBusy());
+        assertEquals(List.of(
+                new BookingIntervalDto(from.plusHours(1), from.plusHours(4)),
+                new BookingIntervalDto(from.plusHours(9), from.plusHours(20))), actual.getFree());
+    }
+
+    @Test
+    void availabilityWhenNoBookingsThenWholeWindowFree() {
+        ItemAvailabilityDto actual = bookingCalendar.availability(itemId, from, to);
+
+        assertEquals(List.of(), actual.getBusy());
+        assertEquals(List.of(new BookingIntervalDto(from, to)), actual.getFree());
+    }
+
+    @Test
+    void availabilityWhenCachedThenRepositoryQueriedOnceUntilEvicted() {
+        bookingCalendar.availability(itemId, from, to);
+        bookingCalendar.availability(itemId, from, to);
+
+        verify(bookingRepository, times(1))
+                .findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(anyLong(), any(), any(), any());
+
+        bookingCalendar.evict(itemId);
+        bookingCalendar.availability(itemId, from, to);
+
+        verify(bookingRepository, times(2))
+                .findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(anyLong(), any(), any(), any());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingEventBrokerTest {
+
+    @Mock
+    private SseEmitter emitter;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private BookingEventBroker.Subscription subscription;
+
+    private BookingEventDto event;
+
+    @BeforeEach
+    void setUp() {
+        subscription = new BookingEventBroker.Subscription(emitter, 2, tasks::add);
+        event = new BookingEventDto(BookingEventType.CREATED, null);
+    }
+
+    @Test
+    void enqueueWhenDrainingThenScheduleOnce() throws IOException {
+        subscription.enqueue(event);
+        subscription.enqueue(event);
+
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void enqueueWhenBufferFullThenReplaceWithResync() throws IOException {
+        subscription.enqueue(event);
+        subscription.enqueue(event);
+        subscription.enqueue(event);
+
+        tasks.get(0).run();
+
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void drainWhenSendFailsThenCompleteWithError() throws IOException {
+        IOException broken = new IOException("Broken pipe");
+        doThrow(broken).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        subscription.enqueue(event);
+
+        tasks.get(0).run();
+
+        verify(emitter).completeWithError(broken);
+    }
+
+    @Test
+    void heartbeatWhenQueueHasEventsThenSkip() {
+        subscription.enqueue(event);
+        subscription.heartbeat();
+        subscription.heartbeat();
+
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void enqueueWhenExecutorRejectsThenRetryOnHeartbeat() throws IOException {
+        List<Runnable> accepted = new ArrayList<>();
+        BookingEventBroker.Subscription rejecting = new BookingEventBroker.Subscription(emitter, 2, task -> {
+            if (accepted.isEmpty() && tasks.isEmpty()) {
+                tasks.add(task);
+                throw new RejectedExecutionException();
+            }
+            accepted.add(task);
+        });
+
+        rejecting.enqueue(event);
+        rejecting.heartbeat();
+
+        assertEquals(1, accepted.size());
+        accepted.get(0).run();
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void subscribeAndPublishWhenUserIsBookerOrOwnerThenRoute() {
+        BookingEventBroker broker = new BookingEventBroker(Duration.ofMinutes(1), 4, 2, 8);
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        Booking booking = Booking.builder()
+                .id(3L)
+                .start(LocalDateTime.now())
+                .end(LocalDateTime.now().plusDays(1))
+                .item(Item.builder().id(4L).name("item").description("desc").available(true).owner(owner).build())
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        broker.subscribe(owner.getId());
+        broker.subscribe(owner.getId());
+        broker.subscribe(booker.getId());
+        broker.publish(BookingEventType.CREATED, booking);
+
+        assertEquals(2, broker.subscribers(owner.getId()));
+        assertEquals(1, broker.subscribers(booker.getId()));
+        assertEquals(0, broker.subscribers(5L));
+        broker.shutdown();
+    }
+
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpiryJobTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingCalendar bookingCalendar;
+
+    @Mock
+    private BookingSummaryCache bookingSummaryCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BookingExpiryJob bookingExpiryJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingExpiryJob = new BookingExpiryJob(bookingRepository, bookingIntervalIndex, bookingCalendar,
+                bookingSummaryCache, meterRegistry, 2);
+    }
+
+    @Test
+    void expireWhenSeveralBatchesThenUpdateInChunks() {
+        when(bookingRepository.findAllByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(view(1L, 10L), view(2L, 10L)))
+                .thenReturn(List.of(view(3L, 20L)));
+        when(bookingRepository.updateStatusByIdIn(List.of(1L, 2L), BookingStatus.WAITING, BookingStatus.EXPIRED))
+                .thenReturn(2);
+        when(bookingRepository.updateStatusByIdIn(List.of(3L), BookingStatus.WAITING, BookingStatus.EXPIRED))
+                .thenReturn(1);
+
+        bookingExpiryJob.expire();
+
+        verify(bookingRepository, times(2)).findAllByStatusAndStartBefore(any(), any(), any());
+        verify(bookingIntervalIndex).evict(10L);
+        verify(bookingIntervalIndex).evict(20L);
+        verify(bookingCalendar).evict(20L);
+        verify(bookingSummaryCache).evictAll();
+        assertEquals(3, meterRegistry.summary("shareit.booking.expired").totalAmount());
+    }
+
+    @Test
+    void expireWhenNothingToExpireThenRecordZero() {
+        when(bookingRepository.findAllByStatusAndStartBefore(any(), any(), any())).thenReturn(List.of());
+
+        bookingExpiryJob.expire();
+
+        verify(bookingRepository, never()).updateStatusByIdIn(any(), any(), any());
+        verify(bookingSummaryCache, never()).evictAll();
+        assertEquals(1, meterRegistry.summary("shareit.booking.expired").count());
+        assertEquals(0, meterRegistry.summary("shareit.booking.expired").totalAmount());
+    }
+
+    private ItemBookingView view(long id, long itemId) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ItemBookingView.class, Map.of(
+                "id", id,
+                "itemId", itemId));
+    }
+
+}
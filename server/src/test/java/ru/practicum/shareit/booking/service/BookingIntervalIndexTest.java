@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, 100, 16);
+        start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void reserveAllWhenFreeThenSaveOnceAndIndex() {
+        List<Booking> batch = List.of(booking(1L, 1L), booking(2L, 2L));
+
+        List<Booking> saved = bookingIntervalIndex.reserveAll(batch, bookings -> bookings);
+
+        assertEquals(batch, saved);
+        assertThrows(BookingOverlapException.class,
+                () -> bookingIntervalIndex.reserve(booking(3L, 2L), booking -> booking));
+    }
+
+    @Test
+    void reserveAllWhenOneItemOverlapsThenNothingSaved() {
+        bookingIntervalIndex.reserve(booking(1L, 2L), booking -> booking);
+
+        assertThrows(BookingOverlapException.class, () -> bookingIntervalIndex.reserveAll(
+                List.of(booking(2L, 1L), booking(3L, 2L)), bookings -> {
+                    throw new AssertionError("Must not save");
+                }));
+        assertEquals(List.of(booking(4L, 1L)),
+                bookingIntervalIndex.reserveAll(List.of(booking(4L, 1L)), bookings -> bookings));
+    }
+
+    @Test
+    void reserveWhenInTransactionThenHoldItemUntilCompletion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingIntervalIndex.reserve(booking(1L, 1L), booking -> booking);
+            CompletableFuture<Void> evicted = CompletableFuture.runAsync(() -> bookingIntervalIndex.evict(1L));
+
+            assertThrows(TimeoutException.class, () -> evicted.get(100, TimeUnit.MILLISECONDS));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            evicted.get(1, TimeUnit.SECONDS);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(booking(2L, 1L)),
+                bookingIntervalIndex.reserveAll(List.of(booking(2L, 1L)), bookings -> bookings));
+    }
+
+    @Test
+    void reserveWhenOwnBookingApprovedThenKeepInterval() {
+        bookingIntervalIndex.reserve(booking(1L, 1L), booking -> booking);
+
+        Booking approved = booking(1L, 1L);
+        approved.setStatus(BookingStatus.APPROVED);
+
+        assertEquals(approved, bookingIntervalIndex.reserve(approved, booking -> booking));
+        assertThrows(BookingOverlapException.class,
+                () -> bookingIntervalIndex.reserve(booking(2L, 1L), booking -> booking));
+    }
+
+    @Test
+    void reserveWhenBookingRejectedThenFreeInterval() {
+        bookingIntervalIndex.reserve(booking(1L, 1L), booking -> booking);
+
+        Booking rejected = booking(1L, 1L);
+        rejected.setStatus(BookingStatus.REJECTED);
+        bookingIntervalIndex.reserve(rejected, booking -> booking);
+
+        assertEquals(booking(2L, 1L), bookingIntervalIndex.reserve(booking(2L, 1L), booking -> booking));
+    }
+
+    @Test
+    void reserveWhenRejectedBookingApprovedOverActiveThenOverlapExceptionThrow() {
+        bookingIntervalIndex.reserve(booking(1L, 1L), booking -> booking);
+
+        Booking approved = booking(2L, 1L);
+        approved.setStatus(BookingStatus.APPROVED);
+
+        assertThrows(BookingOverlapException.class, () -> bookingIntervalIndex.reserve(approved, booking -> {
+            throw new AssertionError("Must not save");
+        }));
+        assertThrows(BookingOverlapException.class, () -> bookingIntervalIndex.reserveAll(List.of(approved),
+                bookings -> {
+                    throw new AssertionError("Must not save");
+                }));
+    }
+
+    @Test
+    void reserveAllWhenRejectedBookingsApprovedOverEachOtherThenNothingSaved() {
+        Booking first = booking(1L, 1L);
+        first.setStatus(BookingStatus.APPROVED);
+        Booking second = booking(2L, 1L);
+        second.setStatus(BookingStatus.APPROVED);
+
+        assertThrows(BookingOverlapException.class, () -> bookingIntervalIndex.reserveAll(List.of(first, second),
+                bookings -> {
+                    throw new AssertionError("Must not save");
+                }));
+        assertEquals(first, bookingIntervalIndex.reserve(first, booking -> booking));
+    }
+
+    private Booking booking(long id, long itemId) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusHours(2))
+                .item(Item.builder().id(itemId).build())
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalTreeTest {
+
+    private final LocalDateTime time = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingIntervalTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BookingIntervalTree();
+        tree.add(1L, time, time.plusHours(2));
+        tree.add(2L, time.plusHours(5), time.plusHours(6));
+    }
+
+    @Test
+    void overlapsWhenIntervalIntersectsThenTrue() {
+        assertTrue(tree.overlaps(time.plusHours(1), time.plusHours(3)));
+        assertTrue(tree.overlaps(time.minusHours(1), time.plusHours(10)));
+    }
+
+    @Test
+    void overlapsWhenIntervalTouchesOrFitsGapThenFalse() {
+        assertFalse(tree.overlaps(time.plusHours(2), time.plusHours(5)));
+        assertFalse(tree.overlaps(time.minusHours(1), time));
+    }
+
+    @Test
+    void removeWhenInvokeThenIntervalReleased() {
+        tree.remove(1L);
+
+        assertFalse(tree.overlaps(time, time.plusHours(2)));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void overlapsWhenManyIntervalsThenMatchesLinearScan() {
+        Random random = new Random(42);
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        BookingIntervalTree large = new BookingIntervalTree();
+        for (long id = 0; id < 500; id++) {
+            LocalDateTime start = time.plusMinutes(random.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(300));
+            intervals.add(new LocalDateTime[]{start, end});
+            large.add(id, start, end);
+        }
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = time.plusMinutes(random.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(60));
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval[0].isBefore(end) && interval[1].isAfter(start));
+
+            assertEquals(expected, large.overlaps(start, end));
+        }
+    }
+
+}
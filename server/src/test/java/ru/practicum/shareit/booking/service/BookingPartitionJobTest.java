@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private BookingSummaryCache bookingSummaryCache;
+
+    private BookingPartitionJob bookingPartitionJob;
+
+    @BeforeEach
+    void setUp() {
+        bookingPartitionJob = new BookingPartitionJob(jdbcTemplate, new TransactionTemplate(transactionManager),
+                bookingTimelineCache, bookingSummaryCache, 1, 2, 2);
+    }
+
+    @Test
+    void maintainWhenPartitionsMissingThenCreateAhead() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("bookings_archive_default", "bookings_archive_p202608"));
+
+        bookingPartitionJob.maintain(YearMonth.of(2026, 10));
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_archive_p202609 "));
+        verify(jdbcTemplate).execute("ALTER TABLE bookings_archive ATTACH PARTITION bookings_archive_p202609 " +
+                "FOR VALUES FROM ('2026-09-01T00:00') TO ('2026-10-01T00:00')");
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE bookings_archive_p202608 "));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE bookings_archive_p202610 "));
+    }
+
+    @Test
+    void maintainWhenFinishedBookingsOlderThanHorizonThenMoveToArchiveInChunks() {
+        LocalDateTime horizon = LocalDateTime.of(2026, 8, 1, 0, 0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of("202512"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("bookings_archive_p202608", "bookings_archive_p202609"));
+        when(jdbcTemplate.queryForList(startsWith("WITH moved AS (DELETE FROM bookings WHERE id IN ("),
+                eq(Long.class), eq(horizon), eq(2)))
+                .thenReturn(List.of(4L, 4L))
+                .thenReturn(List.of(5L));
+
+        bookingPartitionJob.maintain(YearMonth.of(2026, 10));
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE bookings_archive_p202512 "));
+        verify(jdbcTemplate, times(2)).queryForList(contains("ORDER BY id LIMIT ?"), eq(Long.class), eq(horizon),
+                eq(2));
+        verify(transactionManager, times(3)).commit(any());
+        verify(bookingTimelineCache).evict(4L);
+        verify(bookingTimelineCache).evict(5L);
+        verify(bookingSummaryCache).evictAll();
+        verify(jdbcTemplate, never()).execute(contains("EXCLUDE"));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    void maintainWhenNothingToArchiveThenCachesKept() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("bookings_archive_p202608", "bookings_archive_p202609"));
+
+        bookingPartitionJob.maintain(YearMonth.of(2026, 10));
+
+        verifyNoInteractions(bookingTimelineCache, bookingSummaryCache);
+    }
+
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,12 +9,26 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.ConcurrentUpdateException;
 import ru.practicum.shareit.exception.IncorrectDateTimeException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -23,15 +38,22 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.exception.Constant.NOT_FOUND_BOOKING;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
@@ -45,6 +67,27 @@ class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingCalendar bookingCalendar;
+
+    @Mock
+    private BookingEventBroker bookingEventBroker;
+
+    @Mock
+    private ActiveBookingIndex activeBookingIndex;
+
+    @Mock
+    private BookingSummaryCache bookingSummaryCache;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -104,6 +147,8 @@ class BookingServiceTest {
         when(itemService.getItemById(item.getId())).thenReturn(item);
         when(userService.getUserById(user.getId())).thenReturn(user);
         when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingIntervalIndex.reserve(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<Booking>>getArgument(1).apply(invocation.getArgument(0)));
 
         bookingService.create(user.getId(), bookingToSave);
 
@@ -115,8 +160,86 @@ class BookingServiceTest {
         assertEquals(bookingToSave.getEnd(), actual.getEnd());
         assertEquals(bookingToSave.getItemId(), actual.getItem().getId());
         assertEquals(user.getId(), actual.getBooker().getId());
+        verify(bookingEventBroker).publish(BookingEventType.CREATED, booking);
+    }
+
+
+    @Test
+    void createWhenIntervalOverlapsThenBookingOverlapExceptionThrow() {
+        when(itemService.getItemById(item.getId())).thenReturn(item);
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(bookingIntervalIndex.reserve(any(), any())).thenThrow(BookingOverlapException.class);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(user.getId(), bookingToSave));
+
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBatchWhenInvokeThenReserveAllInOneCall() {
+        Item ladder = Item.builder().id(5L).name("ladder").description("ladder").available(true).owner(owner).build();
+        BookingBatchDto batch = new BookingBatchDto(List.of(item.getId(), ladder.getId(), item.getId()),
+                time.plusMinutes(1), time.plusHours(1));
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemService.getItemsByIds(Set.of(item.getId(), ladder.getId())))
+                .thenReturn(Map.of(item.getId(), item, ladder.getId(), ladder));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookingDto> actual = bookingService.createBatch(user.getId(), batch);
+
+        assertEquals(List.of(item.getId(), ladder.getId()),
+                actual.stream().map(BookingDto::getItemId).collect(Collectors.toList()));
+        verify(userService).getUserById(user.getId());
+        verify(bookingEventBroker, times(2)).publish(eq(BookingEventType.CREATED), any());
+    }
+
+    @Test
+    void createBatchWhenInTransactionThenApplySideEffectsAfterCommit() {
+        BookingBatchDto batch = new BookingBatchDto(List.of(item.getId()), time.plusMinutes(1), time.plusHours(1));
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemService.getItemsByIds(Set.of(item.getId()))).thenReturn(Map.of(item.getId(), item));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingService.createBatch(user.getId(), batch);
+
+            verify(bookingEventBroker, never()).publish(any(), any());
+            verify(activeBookingIndex, never()).add(any());
+            verify(bookingCalendar, never()).evict(anyLong());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(bookingEventBroker).publish(eq(BookingEventType.CREATED), any());
+        verify(activeBookingIndex).add(any());
+        verify(bookingCalendar).evict(item.getId());
+    }
+
+    @Test
+    void createBatchWhenItemNotFoundThenNothingReserved() {
+        BookingBatchDto batch = new BookingBatchDto(List.of(item.getId(), 99L), time.plusMinutes(1),
+                time.plusHours(1));
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemService.getItemsByIds(Set.of(item.getId(), 99L))).thenReturn(Map.of(item.getId(), item));
+
+        assertThrows(NotFoundException.class, () -> bookingService.createBatch(user.getId(), batch));
+
+        verify(bookingIntervalIndex, never()).reserveAll(any(), any());
     }
 
+    @Test
+    void createBatchWhenIntervalOverlapsThenEvictIndex() {
+        BookingBatchDto batch = new BookingBatchDto(List.of(item.getId()), time.plusMinutes(1), time.plusHours(1));
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemService.getItemsByIds(Set.of(item.getId()))).thenReturn(Map.of(item.getId(), item));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenThrow(BookingOverlapException.class);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.createBatch(user.getId(), batch));
+
+        verify(bookingIntervalIndex).evict(item.getId());
+        verify(bookingEventBroker, never()).publish(any(), any());
+    }
 
     @Test
     void createWhenNotValidTimeThenIncorrectDateTimeExceptionThrow() {
@@ -169,7 +292,7 @@ class BookingServiceTest {
     void readAllWhenStateAllThenReturnBookings() {
         when(bookingRepository.findAllByBookerId(any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.ALL, from, size);
+        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.ALL, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -178,17 +301,52 @@ class BookingServiceTest {
     void readAllWhenStatePastThenReturnBookings() {
         when(bookingRepository.findAllByBookerIdAndEndBefore(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.PAST, from, size);
+        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.PAST, false, from, size);
 
         assertEquals(1, actual.size());
     }
 
+    @Test
+    void readAllWhenStatePastWithHistoryThenReadArchive() {
+        when(bookingRepository.findAllByBookerIdAndEndBeforeWithHistory(eq(owner.getId()), any(),
+                eq(PageRequest.of(0, size)))).thenReturn(List.of(booking));
+
+        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.PAST, true, from, size);
+
+        assertEquals(1, actual.size());
+        verify(bookingRepository, never()).findAllByBookerIdAndEndBefore(any(), any(), any());
+    }
+
+    @Test
+    void readAllWhenStateCurrentAndIndexWarmThenReadByIds() {
+        booking.setId(7L);
+        Booking older = Booking.builder().id(6L).start(time.minusDays(1)).end(time.plusDays(1))
+                .item(item).booker(user).status(BookingStatus.APPROVED).build();
+        when(activeBookingIndex.findByBooker(eq(user.getId()), any())).thenReturn(Optional.of(List.of(7L, 6L)));
+        when(bookingRepository.findAllByIdIn(List.of(7L, 6L))).thenReturn(List.of(older, booking));
+
+        Collection<BookingDto> actual = bookingService.readAll(user.getId(), BookingState.CURRENT, false, from, size);
+
+        assertEquals(List.of(7L, 6L), actual.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        verify(bookingRepository, never()).findAllByBookerIdAndStartBeforeAndEndAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void readSummaryForOwnerWhenInvokeThenReturnCachedCounts() {
+        BookingSummaryDto summary = new BookingSummaryDto(3, 1, 1, 1, 0, 0);
+        when(bookingSummaryCache.getForOwner(owner.getId())).thenReturn(summary);
+
+        assertEquals(summary, bookingService.readSummaryForOwner(owner.getId()));
+        verify(userService).userIsExist(owner.getId());
+        verify(bookingSummaryCache, never()).getForBooker(anyLong());
+    }
+
     @Test
     void readAllWhenStateCurrentThenReturnBookings() {
         when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(
                 any(), any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.CURRENT, from, size);
+        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.CURRENT, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -197,7 +355,7 @@ class BookingServiceTest {
     void readAllWhenStateFutureThenReturnBookings() {
         when(bookingRepository.findAllByBookerIdAndStartAfter(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.FUTURE, from, size);
+        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.FUTURE, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -206,7 +364,7 @@ class BookingServiceTest {
     void readAllWhenStateWaitingThenReturnBookings() {
         when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.WAITING, from, size);
+        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.WAITING, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -215,7 +373,7 @@ class BookingServiceTest {
     void readAllWhenStateRejectedThenReturnBookings() {
         when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.REJECTED, from, size);
+        Collection<BookingDto> actual = bookingService.readAll(owner.getId(), BookingState.REJECTED, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -224,11 +382,70 @@ class BookingServiceTest {
     void updateStatusWhenInvokeThenReturnUpdatedBooking() {
         booking.setStatus(BookingStatus.WAITING);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.reserve(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<Booking>>getArgument(1).apply(invocation.getArgument(0)));
         when(bookingRepository.save(booking)).thenReturn(booking);
 
         bookingService.updateStatus(owner.getId(), booking.getId(), true);
 
         verify(bookingRepository).save(booking);
+        verify(bookingEventBroker).publish(BookingEventType.STATUS_CHANGED, booking);
+    }
+
+    @Test
+    void updateStatusWhenExclusionConstraintViolatedThenBookingOverlapExceptionThrow() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.reserve(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<Booking>>getArgument(1).apply(invocation.getArgument(0)));
+        when(bookingRepository.save(booking)).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.updateStatus(owner.getId(), booking.getId(), true));
+
+        verify(bookingIntervalIndex).evict(item.getId());
+    }
+
+    @Test
+    void updateStatusWhenRejectedBookingApprovedOverActiveThenBookingOverlapExceptionThrow() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.reserve(any(), any())).thenThrow(new BookingOverlapException("overlap"));
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.updateStatus(owner.getId(), booking.getId(), true));
+
+        verify(bookingIntervalIndex).reserve(argThat(reserved -> reserved.getStatus() == BookingStatus.APPROVED),
+                any());
+        verify(bookingRepository, never()).save(any());
+        verify(bookingTimelineCache, never()).put(any());
+    }
+
+    @Test
+    void updateStatusWhenOtherIntegrityViolationThenRethrow() {
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.reserve(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<Booking>>getArgument(1).apply(invocation.getArgument(0)));
+        when(bookingRepository.save(booking)).thenThrow(new DataIntegrityViolationException("not null",
+                new SQLException("null value in column", "23502")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.updateStatus(owner.getId(), booking.getId(), true));
+
+        verify(bookingIntervalIndex, never()).evict(anyLong());
+    }
+
+    @Test
+    void updateStatusWhenBookingExpiredThenNotAvailableExceptionThrow() {
+        booking.setStatus(BookingStatus.EXPIRED);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        assertThrows(NotAvailableException.class,
+                () -> bookingService.updateStatus(owner.getId(), booking.getId(), true));
+
+        verify(bookingRepository, never()).save(booking);
     }
 
     @Test
@@ -241,6 +458,41 @@ class BookingServiceTest {
         verify(bookingRepository, never()).save(booking);
     }
 
+    @Test
+    void updateStatusWhenVersionConflictThenRetryAndReturnUpdatedBooking() {
+        ReflectionTestUtils.setField(bookingService, "lockRetries", 2);
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.reserve(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<Booking>>getArgument(1).apply(invocation.getArgument(0)));
+        when(bookingRepository.save(booking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()))
+                .thenReturn(booking);
+
+        BookingDto actual = bookingService.updateStatus(owner.getId(), booking.getId(), false);
+
+        assertEquals(BookingStatus.REJECTED, actual.getStatus());
+        assertEquals(1, meterRegistry.counter("shareit.booking.lock.conflicts", "endpoint", "updateStatus").count());
+    }
+
+    @Test
+    void updateStatusWhenVersionConflictPersistsThenConcurrentUpdateExceptionThrow() {
+        ReflectionTestUtils.setField(bookingService, "lockRetries", 1);
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.reserve(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<Booking>>getArgument(1).apply(invocation.getArgument(0)));
+        when(bookingRepository.save(booking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+
+        assertThrows(ConcurrentUpdateException.class,
+                () -> bookingService.updateStatus(owner.getId(), booking.getId(), false));
+
+        verify(bookingRepository, times(2)).save(booking);
+        verify(bookingTimelineCache, never()).put(any());
+        assertEquals(2, meterRegistry.counter("shareit.booking.lock.conflicts", "endpoint", "updateStatus").count());
+    }
+
     @Test
     void updateStatusWhenUserNotExistThenNotFoundExceptionThrow() {
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.empty());
@@ -261,6 +513,100 @@ class BookingServiceTest {
         verify(bookingRepository, never()).save(booking);
     }
 
+    @Test
+    void updateStatusesWhenInvokeThenReturnResultPerId() {
+        booking.setId(5L);
+        booking.setStatus(BookingStatus.WAITING);
+        Booking approved = Booking.builder()
+                .id(6L)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.APPROVED)
+                .build();
+        List<BookingStatusUpdateDto> updates = List.of(new BookingStatusUpdateDto(5L, false),
+                new BookingStatusUpdateDto(6L, true), new BookingStatusUpdateDto(7L, true));
+        when(bookingRepository.findAllForOwnerByIdIn(owner.getId(), Set.of(5L, 6L, 7L)))
+                .thenReturn(List.of(booking, approved));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<List<Booking>>>getArgument(1).apply(invocation.getArgument(0)));
+        when(bookingRepository.saveAll(any())).thenReturn(List.of(booking));
+
+        List<BookingStatusResultDto> results = bookingService.updateStatuses(owner.getId(), updates);
+
+        assertEquals(List.of(new BookingStatusResultDto(5L, BookingStatus.REJECTED, null),
+                new BookingStatusResultDto(6L, BookingStatus.APPROVED, "Статус уже установлен."),
+                new BookingStatusResultDto(7L, null, String.format(NOT_FOUND_BOOKING, 7L))), results);
+        verify(bookingRepository).flush();
+        verify(bookingIntervalIndex).reserveAll(eq(List.of(booking)), any());
+        verify(bookingCalendar).evict(item.getId());
+    }
+
+    @Test
+    void updateStatusesWhenNothingChangedThenNotSaved() {
+        booking.setId(5L);
+        booking.setStatus(BookingStatus.EXPIRED);
+        when(bookingRepository.findAllForOwnerByIdIn(owner.getId(), Set.of(5L))).thenReturn(List.of(booking));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<List<Booking>>>getArgument(1).apply(invocation.getArgument(0)));
+
+        List<BookingStatusResultDto> results = bookingService.updateStatuses(owner.getId(),
+                List.of(new BookingStatusUpdateDto(5L, true)));
+
+        assertEquals("Бронирование истекло.", results.get(0).getError());
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void updateStatusesWhenExclusionConstraintViolatedThenBookingOverlapExceptionThrow() {
+        booking.setId(5L);
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findAllForOwnerByIdIn(owner.getId(), Set.of(5L))).thenReturn(List.of(booking));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<List<Booking>>>getArgument(1).apply(invocation.getArgument(0)));
+        doThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .when(bookingRepository).flush();
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.updateStatuses(owner.getId(),
+                List.of(new BookingStatusUpdateDto(5L, true))));
+
+        verify(bookingIntervalIndex).evict(item.getId());
+        verify(bookingTimelineCache, never()).put(any());
+    }
+
+    @Test
+    void updateStatusesWhenRejectedBookingApprovedOverActiveThenBookingOverlapExceptionThrow() {
+        booking.setId(5L);
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findAllForOwnerByIdIn(owner.getId(), Set.of(5L))).thenReturn(List.of(booking));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenThrow(new BookingOverlapException("overlap"));
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.updateStatuses(owner.getId(),
+                List.of(new BookingStatusUpdateDto(5L, true))));
+
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        verify(bookingIntervalIndex).reserveAll(eq(List.of(booking)), any());
+        verify(bookingRepository, never()).saveAll(any());
+        verify(bookingTimelineCache, never()).put(any());
+    }
+
+    @Test
+    void updateStatusesWhenVersionConflictThenConcurrentUpdateExceptionThrow() {
+        booking.setId(5L);
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findAllForOwnerByIdIn(owner.getId(), Set.of(5L))).thenReturn(List.of(booking));
+        when(bookingIntervalIndex.reserveAll(any(), any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<List<Booking>>>getArgument(1).apply(invocation.getArgument(0)));
+        doThrow(new ObjectOptimisticLockingFailureException(Booking.class, 5L)).when(bookingRepository).flush();
+
+        assertThrows(ConcurrentUpdateException.class, () -> bookingService.updateStatuses(owner.getId(),
+                List.of(new BookingStatusUpdateDto(5L, true))));
+
+        assertEquals(1, meterRegistry.counter("shareit.booking.lock.conflicts", "endpoint", "updateStatuses").count());
+    }
+
     @Test
     void deleteWhenUserWasNotOwnerThenNotOwnerExceptionThrow() {
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
@@ -278,14 +624,35 @@ class BookingServiceTest {
         bookingService.delete(user.getId(), booking.getId());
 
         verify(bookingRepository).deleteById(booking.getId());
+        verify(bookingTimelineCache).evict(booking.getItem().getId());
+        verify(bookingCalendar).evict(booking.getItem().getId());
+        verify(bookingEventBroker).publish(BookingEventType.DELETED, booking);
     }
 
+    @Test
+    void subscribeWhenUserNotExistThenNotFoundExceptionThrow() {
+        doThrow(NotFoundException.class).when(userService).userIsExist(user.getId());
+
+        assertThrows(NotFoundException.class, () -> bookingService.subscribe(user.getId()));
+
+        verify(bookingEventBroker, never()).subscribe(anyLong());
+    }
 
     @Test
     void readForOwnerWhenStateAllThenReturnBookings() {
         when(bookingRepository.findAllForOwner(any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.ALL, from, size);
+        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.ALL, false, from, size);
+
+        assertEquals(1, actual.size());
+    }
+
+    @Test
+    void readForOwnerWhenStateAllWithHistoryThenReadArchive() {
+        when(bookingRepository.findAllForOwnerWithHistory(owner.getId(), PageRequest.of(0, size)))
+                .thenReturn(List.of(booking));
+
+        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.ALL, true, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -294,7 +661,7 @@ class BookingServiceTest {
     void readForOwnerWhenStatePastThenReturnBookings() {
         when(bookingRepository.findAllForOwnerPast(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.PAST, from, size);
+        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.PAST, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -303,7 +670,7 @@ class BookingServiceTest {
     void readForOwnerWhenStateCurrentThenReturnBookings() {
         when(bookingRepository.findAllForOwnerCurrent(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.CURRENT, from, size);
+        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.CURRENT, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -312,7 +679,7 @@ class BookingServiceTest {
     void readForOwnerWhenStateFutureThenReturnBookings() {
         when(bookingRepository.findAllForOwnerFuture(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.FUTURE, from, size);
+        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.FUTURE, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -321,7 +688,7 @@ class BookingServiceTest {
     void readForOwnerWhenStateWaitingThenReturnBookings() {
         when(bookingRepository.findAllForOwnerState(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.WAITING, from, size);
+        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.WAITING, false, from, size);
 
         assertEquals(1, actual.size());
     }
@@ -330,7 +697,7 @@ class BookingServiceTest {
     void readForOwnerWhenStateRejectedThenReturnBookings() {
         when(bookingRepository.findAllForOwnerState(any(), any(), any())).thenReturn(List.of(booking));
 
-        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.REJECTED, from, size);
+        Collection<BookingDto> actual = bookingService.readForOwner(owner.getId(), BookingState.REJECTED, false, from, size);
 
         assertEquals(1, actual.size());
     }
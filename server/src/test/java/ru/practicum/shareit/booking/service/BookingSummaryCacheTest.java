@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSummaryCacheTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingSummaryCache bookingSummaryCache;
+
+    private final long bookerId = 1L;
+    private final long ownerId = 2L;
+
+    @BeforeEach
+    void setUp() {
+        bookingSummaryCache = new BookingSummaryCache(bookingRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void getForBookerWhenCachedThenQueryOnce() {
+        when(bookingRepository.countStatesByBookerId(eq(bookerId), any())).thenReturn(view(4L, 1L));
+
+        bookingSummaryCache.getForBooker(bookerId);
+        BookingSummaryDto actual = bookingSummaryCache.getForBooker(bookerId);
+
+        assertEquals(new BookingSummaryDto(4, 1, 1, 1, 1, 0), actual);
+        verify(bookingRepository, times(1)).countStatesByBookerId(eq(bookerId), any());
+    }
+
+    @Test
+    void evictWhenBookingChangedThenReloadBookerAndOwner() {
+        when(bookingRepository.countStatesByBookerId(eq(bookerId), any())).thenReturn(view(1L, 1L));
+        when(bookingRepository.countStatesForOwner(eq(ownerId), any())).thenReturn(view(1L, 1L));
+        bookingSummaryCache.getForBooker(bookerId);
+        bookingSummaryCache.getForOwner(ownerId);
+
+        bookingSummaryCache.evict(Booking.builder()
+                .booker(User.builder().id(bookerId).build())
+                .item(Item.builder().owner(User.builder().id(ownerId).build()).build())
+                .build());
+        bookingSummaryCache.getForBooker(bookerId);
+        bookingSummaryCache.getForOwner(ownerId);
+
+        verify(bookingRepository, times(2)).countStatesByBookerId(eq(bookerId), any());
+        verify(bookingRepository, times(2)).countStatesForOwner(eq(ownerId), any());
+    }
+
+    private BookingSummaryView view(long total, long waiting) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingSummaryView.class, Map.of(
+                "total", total,
+                "current", 1L,
+                "past", 1L,
+                "future", 1L,
+                "waiting", waiting,
+                "rejected", 0L));
+    }
+
+}
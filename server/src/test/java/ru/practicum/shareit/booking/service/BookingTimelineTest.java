@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingTimelineTest {
+
+    private final LocalDateTime time = LocalDateTime.now();
+
+    private BookingTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        timeline = new BookingTimeline();
+        timeline.put(1L, 10L, time.minusDays(3), time.minusDays(2));
+        timeline.put(2L, 20L, time.minusDays(1), time.plusDays(1));
+        timeline.put(3L, 30L, time.plusDays(2), time.plusDays(3));
+        timeline.put(4L, 40L, time.plusDays(1), time.plusDays(2));
+    }
+
+    @Test
+    void lastWhenStartedBookingsExistThenReturnLatestEnding() {
+        assertEquals(new ShortBookingDto(2L, 20L), timeline.last(time).orElseThrow());
+    }
+
+    @Test
+    void nextWhenFutureBookingsExistThenReturnEarliestStarting() {
+        assertEquals(new ShortBookingDto(4L, 40L), timeline.next(time).orElseThrow());
+    }
+
+    @Test
+    void putWhenSameStartThenKeepLaterEnd() {
+        timeline.put(5L, 50L, time.minusDays(1), time.plusHours(1));
+
+        assertEquals(new ShortBookingDto(2L, 20L), timeline.last(time).orElseThrow());
+    }
+
+    @Test
+    void lastWhenNoBookingsThenEmpty() {
+        BookingTimeline empty = new BookingTimeline();
+
+        assertTrue(empty.last(time).isEmpty());
+        assertTrue(empty.next(time).isEmpty());
+    }
+
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeWheelTest {
+
+    @Test
+    void advanceWhenDeadlinesOnEveryLevelThenFireAtExactTick() {
+        TimeWheel<Long> wheel = new TimeWheel<>(4, 2, 5);
+        Map<Long, Long> fired = new TreeMap<>();
+        List<Long> deadlines = List.of(6L, 8L, 9L, 20L, 21L, 40L, 100L);
+        deadlines.forEach(deadline -> assertTrue(wheel.schedule(deadline, deadline)));
+
+        for (long tick = 6; tick <= 100; tick++) {
+            long now = tick;
+            wheel.advance(now, deadline -> fired.put(deadline, now));
+        }
+
+        assertEquals(deadlines, new ArrayList<>(fired.keySet()));
+        fired.forEach((deadline, tick) -> assertEquals(deadline, tick));
+    }
+
+    @Test
+    void advanceWhenJumpingSeveralTicksThenFireAllDue() {
+        TimeWheel<String> wheel = new TimeWheel<>(4, 2, 0);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(3, "near");
+        wheel.schedule(13, "middle");
+        wheel.schedule(70, "overflow");
+
+        wheel.advance(13, fired::add);
+        assertEquals(List.of("near", "middle"), fired);
+
+        wheel.advance(69, fired::add);
+        assertEquals(2, fired.size());
+        wheel.advance(70, fired::add);
+        assertEquals(List.of("near", "middle", "overflow"), fired);
+        assertEquals(70, wheel.currentTick());
+    }
+
+    @Test
+    void scheduleWhenDeadlinePassedThenReject() {
+        TimeWheel<String> wheel = new TimeWheel<>(4, 2, 10);
+
+        assertFalse(wheel.schedule(10, "now"));
+        assertFalse(wheel.schedule(3, "past"));
+    }
+
+}
@@ -10,16 +10,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -108,6 +114,36 @@ class ItemControllerITest {
         verify(itemService).readAll(userId, 0, 10);
     }
 
+    @SneakyThrows
+    @Test
+    void readAllWhenCursorThenSeekAndReturnNextCursor() {
+        itemDto.setId(5L);
+        List<ItemDto> items = List.of(itemDto);
+        when(itemService.readAllAfter(userId, 4L, 1)).thenReturn(items);
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "1")
+                        .param("cursor", Cursor.encode(4L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.encode(5L)));
+
+        verify(itemService).readAllAfter(userId, 4L, 1);
+        verify(itemService, never()).readAll(anyLong(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void readAllWhenCursorInvalidThenStatusBadRequest() {
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", "не курсор"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).readAllAfter(anyLong(), anyLong(), anyInt());
+    }
+
     @SneakyThrows
     @Test
     void updateWhenInvokeThenReturnOk() {
@@ -160,6 +196,46 @@ class ItemControllerITest {
         verify(itemService).search(userId, "desc", 0, 10);
     }
 
+    @SneakyThrows
+    @Test
+    void searchWhenWindowThenSearchFreeItems() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 10, 0);
+        List<ItemDto> items = List.of(itemDto);
+        when(itemService.searchFree(userId, "desc", start, start.plusDays(2), 0, 10)).thenReturn(items);
+
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("text", "desc")
+                        .param("start", start.toString())
+                        .param("end", start.plusDays(2).toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(itemService).searchFree(userId, "desc", start, start.plusDays(2), 0, 10);
+        verify(itemService, never()).search(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void searchWhenCursorThenSeek() {
+        List<ItemDto> items = List.of(itemDto);
+        when(itemService.searchAfter(userId, "desc", 4L, 10)).thenReturn(items);
+
+        String result = mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("text", "desc")
+                        .param("cursor", Cursor.encode(4L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(items), result);
+        verify(itemService).searchAfter(userId, "desc", 4L, 10);
+    }
+
     @SneakyThrows
     @Test
     void searchWhenParamTextNullThenStatusBadRequest() {
@@ -192,4 +268,57 @@ class ItemControllerITest {
         verify(itemService).createComment(userId, itemId, commentDto);
     }
 
-}
\ No newline at end of file
+    @SneakyThrows
+    @Test
+    void readCommentsWhenCursorThenSeekAndReturnNextCursor() {
+        LocalDateTime created = LocalDateTime.of(2023, 5, 1, 12, 0);
+        commentDto.setId(3L);
+        commentDto.setCreated(created);
+        when(itemService.readCommentsBefore(userId, itemId, created.plusHours(1), 4L, 1))
+                .thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "1")
+                        .param("cursor", Cursor.encode(created.plusHours(1), 4L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.encode(created, 3L)));
+
+        verify(itemService, never()).readComments(anyLong(), anyLong(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void readCommentsWhenCursorInvalidThenStatusBadRequest() {
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", Cursor.encode(4L)))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).readCommentsBefore(anyLong(), anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void readAvailabilityWhenInvokeThenReturnOk() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(itemId, from, to, List.of(),
+                List.of(new BookingIntervalDto(from, to)));
+        when(itemService.readAvailability(userId, itemId, from, to)).thenReturn(availability);
+
+        String result = mockMvc.perform(get("/items/{itemId}/availability", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(availability), result);
+    }
+
+}
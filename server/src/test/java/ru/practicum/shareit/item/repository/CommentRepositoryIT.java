@@ -6,15 +6,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Set;
 
 @DataJpaTest
 class CommentRepositoryIT {
@@ -50,22 +50,38 @@ class CommentRepositoryIT {
                 .text("comment")
                 .item(item)
                 .author(user)
-                .created(LocalDateTime.now())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .build());
     }
 
     @Test
-    void findAllByItemId() {
-        Collection<Comment> allByItemId = commentRepository.findAllByItemId(item.getId());
+    void findAllByItemIdOrderByCreatedDescIdDesc() {
+        Comment latest = commentRepository.save(Comment.builder()
+                .text("latest")
+                .item(item)
+                .author(comment.getAuthor())
+                .created(comment.getCreated().plusMinutes(1))
+                .build());
+
+        List<Comment> allByItemId = commentRepository
+                .findAllByItemIdOrderByCreatedDescIdDesc(item.getId(), PageRequest.of(0, 1));
 
-        Assertions.assertEquals(List.of(comment), allByItemId);
+        Assertions.assertEquals(List.of(latest), allByItemId);
     }
 
     @Test
-    void findAllByItemIdIn() {
-        Collection<Comment> allByItemId = commentRepository.findAllByItemIdIn(Set.of(item.getId()));
+    void findAllByItemIdBefore() {
+        Comment sameTime = commentRepository.save(Comment.builder()
+                .text("same time")
+                .item(item)
+                .author(comment.getAuthor())
+                .created(comment.getCreated())
+                .build());
+
+        List<Comment> before = commentRepository.findAllByItemIdBefore(item.getId(), sameTime.getCreated(),
+                sameTime.getId(), PageRequest.of(0, 10));
 
-        Assertions.assertEquals(List.of(comment), allByItemId);
+        Assertions.assertEquals(List.of(comment), before);
     }
 
     @AfterEach
@@ -5,11 +5,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,6 +31,12 @@ class ItemRepositoryIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private User user;
 
     private Item item;
@@ -42,20 +56,78 @@ class ItemRepositoryIT {
                 .build());
     }
 
+    @Test
+    void saveWhenCommentCountedAfterLoadThenKeepCount() {
+        itemRepository.flush();
+        itemRepository.incrementCommentCount(item.getId());
+        item.setName("renamed");
+
+        itemRepository.saveAndFlush(item);
+        entityManager.clear();
+
+        Item saved = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("renamed", saved.getName());
+        assertEquals(1, saved.getCommentCount());
+    }
+
     @Test
     void search() {
-        List<Item> searched = itemRepository.search("DeSc", Pageable.unpaged());
+        List<Item> searched = itemRepository.search("DeSc", 0L, Pageable.unpaged());
 
         assertEquals(List.of(item), searched);
     }
 
     @Test
     void searchWhenNotExistParam() {
-        List<Item> searched = itemRepository.search("item", Pageable.unpaged());
+        List<Item> searched = itemRepository.search("item", 0L, Pageable.unpaged());
 
         assertEquals(0, searched.size());
     }
 
+    @Test
+    void searchTrigram() {
+        List<Item> searched = itemRepository.searchTrigram("DeSc", 0L, Pageable.unpaged());
+
+        assertEquals(List.of(item), searched);
+    }
+
+    @Test
+    void searchFree() {
+        LocalDateTime start = bookItem(BookingStatus.APPROVED);
+
+        assertEquals(List.of(), itemRepository.searchFree("desc", 0L, start.plusHours(1), start.plusDays(2),
+                BookingStatus.ACTIVE, Pageable.unpaged()));
+        assertEquals(List.of(item), itemRepository.searchFree("desc", 0L, start.plusDays(1), start.plusDays(2),
+                BookingStatus.ACTIVE, Pageable.unpaged()));
+    }
+
+    @Test
+    void searchFreeWhenBookingRejectedThenItemFree() {
+        LocalDateTime start = bookItem(BookingStatus.REJECTED);
+
+        assertEquals(List.of(item), itemRepository.searchFree("desc", 0L, start, start.plusDays(1),
+                BookingStatus.ACTIVE, Pageable.unpaged()));
+    }
+
+    @Test
+    void searchFreeTrigram() {
+        LocalDateTime start = bookItem(BookingStatus.WAITING);
+        List<String> busy = List.of(BookingStatus.WAITING.name(), BookingStatus.APPROVED.name());
+
+        assertEquals(List.of(), itemRepository.searchFreeTrigram("DeSc", 0L, start.minusDays(1), start.plusHours(1),
+                busy, Pageable.unpaged()));
+        assertEquals(List.of(item), itemRepository.searchFreeTrigram("DeSc", 0L, start.minusDays(1), start,
+                busy, Pageable.unpaged()));
+    }
+
+    @Test
+    void findFreeByIdIn() {
+        LocalDateTime start = bookItem(BookingStatus.APPROVED);
+
+        assertEquals(List.of(), itemRepository.findFreeByIdIn(List.of(item.getId()), start, start.plusHours(1),
+                BookingStatus.ACTIVE));
+    }
+
     @Test
     void findAllByOwnerId() {
         List<Item> allByOwnerId = itemRepository.findAllByOwnerId(user.getId(), Pageable.unpaged());
@@ -63,6 +135,40 @@ class ItemRepositoryIT {
         assertEquals(List.of(item), allByOwnerId);
     }
 
+    @Test
+    void findAllByOwnerIdAndIdGreaterThan() {
+        Item next = itemRepository.save(Item.builder()
+                .name("next")
+                .description("next desc")
+                .available(true)
+                .owner(user)
+                .build());
+
+        List<Item> page = itemRepository.findAllByOwnerIdAndIdGreaterThan(user.getId(), item.getId(),
+                PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(List.of(next), page);
+    }
+
+    @Test
+    void incrementCommentCount() {
+        itemRepository.incrementCommentCount(item.getId());
+
+        assertEquals(1, itemRepository.findById(item.getId()).orElseThrow().getCommentCount());
+    }
+
+    private LocalDateTime bookItem(BookingStatus status) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(user)
+                .status(status)
+                .build());
+        return start;
+    }
+
     @AfterEach
     void tearDown() {
         userRepository.deleteAll();
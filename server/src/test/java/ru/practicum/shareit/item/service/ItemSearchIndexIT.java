@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest
+class ItemSearchIndexIT {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemSearch itemSearch;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("index-owner@mail.ru")
+                .build());
+    }
+
+    @Test
+    void searchWhenItemCreatedOrChangedThenIndexFollows() {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Перфоратор");
+        itemDto.setDescription("Мощный перфоратор");
+        itemDto.setAvailable(true);
+        ItemDto drill = itemService.create(owner.getId(), itemDto);
+
+        assertInstanceOf(ItemSearchIndex.class, itemSearch);
+        assertEquals(List.of(drill.getId()), ids(itemService.search(owner.getId(), "ПЕРФОРАТОР", 0, 10)));
+
+        ItemDto unavailable = new ItemDto();
+        unavailable.setAvailable(false);
+        itemService.update(owner.getId(), drill.getId(), unavailable);
+
+        assertTrue(itemService.search(owner.getId(), "перфоратор", 0, 10).isEmpty());
+    }
+
+    private static List<Long> ids(Collection<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+}
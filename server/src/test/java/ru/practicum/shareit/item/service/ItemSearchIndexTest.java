@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    private Item drill;
+    private Item saw;
+
+    @BeforeEach
+    void setUp() {
+        drill = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .build();
+
+        saw = Item.builder()
+                .id(2L)
+                .name("Пила")
+                .description("Ручная пила по дереву")
+                .available(true)
+                .build();
+
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(drill, saw));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchWhenSubstringMatchesThenReturnItems() {
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+
+        List<Item> result = itemSearchIndex.search("ДРЕ", 0L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill), result);
+    }
+
+    @Test
+    void searchWhenShortQueryThenScanAllItems() {
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(saw, drill));
+
+        List<Item> result = itemSearchIndex.search("л", 0L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill, saw), result);
+    }
+
+    @Test
+    void searchWhenNoMatchThenRepositoryNotInvoked() {
+        List<Item> result = itemSearchIndex.search("молоток", 0L, PageRequest.of(0, 10));
+
+        assertTrue(result.isEmpty());
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void searchWhenPagedThenSkipPreviousPages() {
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(saw, drill));
+
+        List<Item> result = itemSearchIndex.search("л", 0L, PageRequest.of(1, 1));
+
+        assertEquals(List.of(saw), result);
+    }
+
+    @Test
+    void searchWhenItemDeletedThenFillPageFromNextItems() {
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of());
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+
+        List<Item> result = itemSearchIndex.search("л", 0L, PageRequest.of(0, 1));
+
+        assertEquals(List.of(saw), result);
+        assertTrue(itemSearchIndex.search("дрель", 0L, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchFreeWhenInvokeThenReturnItemsFreeInWindow() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemRepository.findFreeByIdIn(List.of(1L, 2L), start, start.plusDays(1), BookingStatus.ACTIVE))
+                .thenReturn(List.of(saw));
+
+        List<Item> result = itemSearchIndex.searchFree("л", start, start.plusDays(1), 0L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(saw), result);
+    }
+
+    @Test
+    void indexWhenItemBecameUnavailableThenNotFound() {
+        drill.setAvailable(false);
+        itemSearchIndex.index(drill);
+
+        assertTrue(itemSearchIndex.search("дрель", 0L, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void removeWhenInvokeThenNotFound() {
+        itemSearchIndex.remove(saw.getId());
+
+        assertTrue(itemSearchIndex.search("пила", 0L, PageRequest.of(0, 10)).isEmpty());
+    }
+
+}
@@ -10,9 +10,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ActiveBookingIndex;
+import ru.practicum.shareit.booking.service.BookingCalendar;
+import ru.practicum.shareit.booking.service.BookingTimeline;
+import ru.practicum.shareit.booking.service.BookingTimelineCache;
+import ru.practicum.shareit.exception.IncorrectDateTimeException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.exception.UncompletedBookingException;
@@ -24,6 +30,8 @@ import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestFeedCache;
+import ru.practicum.shareit.request.service.RequestMatcher;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserMapper;
@@ -32,6 +40,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -54,9 +63,27 @@ class ItemServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private BookingCalendar bookingCalendar;
+
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private ItemSearch itemSearch;
+
+    @Mock
+    private RequestMatcher requestMatcher;
+
+    @Mock
+    private ActiveBookingIndex activeBookingIndex;
+
+    @Mock
+    private RequestFeedCache requestFeedCache;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -72,13 +99,15 @@ class ItemServiceTest {
     private User owner;
     private User user;
     private Item item;
-    private Booking booking;
+    private BookingTimeline bookings;
     private Comment comment;
     private ItemRequest request;
 
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(itemService, "commentsPreviewSize", 10);
+
         userDto = new UserDto();
         userDto.setId(1L);
         userDto.setName("name");
@@ -114,13 +143,8 @@ class ItemServiceTest {
 
         LocalDateTime time = LocalDateTime.now();
 
-        booking = Booking.builder()
-                .start(time.minusHours(1))
-                .end(time.minusMinutes(10))
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.APPROVED)
-                .build();
+        bookings = new BookingTimeline();
+        bookings.put(7L, user.getId(), time.minusDays(1), time.minusHours(1));
 
         comment = Comment.builder()
                 .id(5L)
@@ -148,6 +172,8 @@ class ItemServiceTest {
         ItemDto actual = itemService.create(user.getId(), itemDto);
 
         verify(itemRepository).save(any());
+        verify(itemSearch).index(item);
+        verify(requestMatcher).onItemCreated(item);
         assertEquals(item.getName(), actual.getName());
         assertEquals(item.getDescription(), actual.getDescription());
         assertEquals(item.getAvailable(), actual.getAvailable());
@@ -203,12 +229,13 @@ class ItemServiceTest {
     @Test
     void readWhenLastBookingExistThenReturnItem() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(booking));
-        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of(comment));
+        when(bookingTimelineCache.get(item.getId())).thenReturn(bookings);
+        when(commentRepository.findAllByItemIdOrderByCreatedDescIdDesc(item.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(comment));
 
         ItemDto actual = itemService.read(owner.getId(), item.getId());
 
-        assertEquals(booking.getBooker().getId(), actual.getLastBooking().getBookerId());
+        assertEquals(user.getId(), actual.getLastBooking().getBookerId());
         assertNull(actual.getNextBooking());
         assertEquals(1, actual.getComments().size());
     }
@@ -216,7 +243,8 @@ class ItemServiceTest {
     @Test
     void readWhenBookingsNotExistThenReturnItemWithoutBookings() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of(comment));
+        when(commentRepository.findAllByItemIdOrderByCreatedDescIdDesc(item.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(comment));
 
         ItemDto actual = itemService.read(user.getId(), item.getId());
 
@@ -227,16 +255,26 @@ class ItemServiceTest {
 
     @Test
     void readAllWhenInvokeThenReturnItems() {
-        when(itemRepository.findAllByOwnerId(owner.getId(), PageRequest.of(0, 10))).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(booking));
-        when(commentRepository.findAllByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
+        when(itemRepository.findAllByOwnerId(owner.getId(), PageRequest.of(0, 10, Sort.by("id")))).thenReturn(List.of(item));
+        when(bookingTimelineCache.get(Set.of(item.getId()))).thenReturn(Map.of(item.getId(), bookings));
 
         List<ItemDto> actual = (List<ItemDto>) itemService.readAll(owner.getId(), 0, 10);
 
-        Assertions.assertEquals(booking.getBooker().getId(), actual.get(0).getLastBooking().getBookerId());
+        Assertions.assertEquals(user.getId(), actual.get(0).getLastBooking().getBookerId());
         assertNull(actual.get(0).getNextBooking());
-        Assertions.assertEquals(1, actual.get(0).getComments().size());
+        assertNull(actual.get(0).getComments());
+        assertEquals(1, actual.size());
+    }
+
+    @Test
+    void readAllAfterWhenInvokeThenSeekFromLastId() {
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThan(owner.getId(), 3L, PageRequest.of(0, 10, Sort.by("id"))))
+                .thenReturn(List.of(item));
+
+        List<ItemDto> actual = (List<ItemDto>) itemService.readAllAfter(owner.getId(), 3L, 10);
+
         assertEquals(1, actual.size());
+        assertEquals(item.getId(), actual.get(0).getId());
     }
 
     @Test
@@ -254,6 +292,7 @@ class ItemServiceTest {
         ItemDto updated = itemService.update(owner.getId(), oldItem.getId(), newItem);
 
         verify(itemRepository).save(any());
+        verify(itemSearch).index(oldItem);
         assertEquals(newItem.getName(), updated.getName());
         assertEquals(newItem.getDescription(), updated.getDescription());
         assertEquals(newItem.getAvailable(), updated.getAvailable());
@@ -301,6 +340,20 @@ class ItemServiceTest {
         itemService.delete(owner.getId(), id);
 
         verify(itemRepository).deleteById(id);
+        verify(activeBookingIndex).removeByItem(id);
+        verify(itemSearch).remove(id);
+    }
+
+    @Test
+    void deleteWhenItemAnswersRequestThenTouchRequest() {
+        Item item = ItemMapper.toItem(itemDto);
+        item.setOwner(owner);
+        item.setRequest(request);
+        when(itemRepository.findById(id)).thenReturn(Optional.of(item));
+
+        itemService.delete(owner.getId(), id);
+
+        verify(requestRepository).touch(request.getId());
     }
 
     @Test
@@ -321,7 +374,7 @@ class ItemServiceTest {
         Collection<ItemDto> result = itemService.search(id, text, 0, 10);
 
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).search(any(), any());
+        verify(itemSearch, never()).search(any(), anyLong(), any());
 
     }
 
@@ -331,48 +384,145 @@ class ItemServiceTest {
         Collection<ItemDto> result = itemService.search(id, text, 0, 10);
 
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).search(any(), any());
+        verify(itemSearch, never()).search(any(), anyLong(), any());
     }
 
     @Test
     void searchWhenInvokeThenReturnResult() {
         int from = 0;
         int size = 10;
-        when(itemRepository.search("item", PageRequest.of(from, size))).thenReturn(List.of(ItemMapper.toItem(itemDto)));
+        when(itemSearch.search("item", 0L, PageRequest.of(from, size))).thenReturn(List.of(ItemMapper.toItem(itemDto)));
 
         Collection<ItemDto> result = itemService.search(id, "item", from, size);
 
-        verify(itemRepository).search("item", PageRequest.of(from, size));
+        verify(itemSearch).search("item", 0L, PageRequest.of(from, size));
+        assertIterableEquals(List.of(itemDto), result);
+    }
+
+    @Test
+    void searchFreeWhenInvokeThenReturnFreeItems() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemSearch.searchFree("item", start, start.plusDays(1), 0L, PageRequest.of(0, 10)))
+                .thenReturn(List.of(item));
+
+        Collection<ItemDto> result = itemService.searchFree(id, "item", start, start.plusDays(1), 0, 10);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void searchFreeAfterWhenInvokeThenSeekFromLastId() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemSearch.searchFree("item", start, start.plusDays(1), 3L, PageRequest.of(0, 10)))
+                .thenReturn(List.of(item));
+
+        Collection<ItemDto> result = itemService.searchFreeAfter(id, "item", start, start.plusDays(1), 3L, 10);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void searchFreeWhenWindowIncompleteThenIncorrectDateTimeExceptionThrow() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(IncorrectDateTimeException.class,
+                () -> itemService.searchFree(id, "item", start, null, 0, 10));
+
+        verify(itemSearch, never()).searchFree(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void searchAfterWhenInvokeThenSeekFromLastId() {
+        when(itemSearch.search("item", 3L, PageRequest.of(0, 10))).thenReturn(List.of(ItemMapper.toItem(itemDto)));
+
+        Collection<ItemDto> result = itemService.searchAfter(id, "item", 3L, 10);
+
+        verify(itemSearch).search("item", 3L, PageRequest.of(0, 10));
         assertIterableEquals(List.of(itemDto), result);
     }
 
     @Test
     void createCommentWhenInvokeThenReturnSavedComment() {
-        List<Booking> notEmpty = List.of(new Booking());
         when(userService.getUserById(id)).thenReturn(user);
         when(itemRepository.findById(id)).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByBookerIdAndItemIdAndEndIsBefore(any(), any(), any())).thenReturn(notEmpty);
+        when(bookingRepository.existsCompletedByBookerIdAndItemId(any(), any(), any())).thenReturn(true);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
 
         CommentDto result = itemService.createComment(id, id, commentDto);
 
         verify(commentRepository).save(any());
+        verify(itemRepository).incrementCommentCount(id);
         assertEquals(comment.getText(), result.getText());
         assertEquals(comment.getAuthor().getName(), result.getAuthorName());
     }
 
     @Test
     void createCommentWhenWasNoBookingThenUncompletedBookingExceptionThrow() {
-        List<Booking> empty = List.of();
         when(userService.getUserById(id)).thenReturn(owner);
         when(itemRepository.findById(id)).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByBookerIdAndItemIdAndEndIsBefore(any(), any(), any())).thenReturn(empty);
+        when(bookingRepository.existsCompletedByBookerIdAndItemId(any(), any(), any())).thenReturn(false);
 
         assertThrows(UncompletedBookingException.class, () -> itemService.createComment(id, id, commentDto));
 
         verify(commentRepository, never()).save(any());
     }
 
+    @Test
+    void readCommentsWhenInvokeThenReturnLatestComments() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemIdOrderByCreatedDescIdDesc(item.getId(), PageRequest.of(0, 5)))
+                .thenReturn(List.of(comment));
+
+        List<CommentDto> actual = (List<CommentDto>) itemService.readComments(user.getId(), item.getId(), 5);
+
+        assertEquals(1, actual.size());
+        assertEquals(comment.getId(), actual.get(0).getId());
+    }
+
+    @Test
+    void readCommentsBeforeWhenInvokeThenSeekFromPosition() {
+        LocalDateTime created = comment.getCreated().plusMinutes(1);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemIdBefore(item.getId(), created, 9L, PageRequest.of(0, 5)))
+                .thenReturn(List.of(comment));
+
+        List<CommentDto> actual = (List<CommentDto>) itemService
+                .readCommentsBefore(user.getId(), item.getId(), created, 9L, 5);
+
+        assertEquals(1, actual.size());
+    }
+
+    @Test
+    void readCommentsWhenItemNotExistThenNotFoundExceptionThrow() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.readComments(user.getId(), item.getId(), 5));
+
+        verify(commentRepository, never()).findAllByItemIdOrderByCreatedDescIdDesc(anyLong(), any());
+    }
+
+    @Test
+    void readAvailabilityWhenInvokeThenReturnCalendar() {
+        LocalDateTime from = LocalDateTime.now();
+        ItemAvailabilityDto availability = new ItemAvailabilityDto();
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingCalendar.availability(item.getId(), from, from.plusDays(1))).thenReturn(availability);
+
+        ItemAvailabilityDto actual = itemService.readAvailability(user.getId(), item.getId(), from, from.plusDays(1));
+
+        assertEquals(availability, actual);
+    }
+
+    @Test
+    void readAvailabilityWhenWindowEmptyThenIncorrectDateTimeExceptionThrow() {
+        LocalDateTime from = LocalDateTime.now();
+
+        assertThrows(IncorrectDateTimeException.class,
+                () -> itemService.readAvailability(user.getId(), item.getId(), from, from));
+
+        verify(bookingCalendar, never()).availability(anyLong(), any(), any());
+    }
+
     @Test
     void getItemByIdWhenItemNotExistThenNotFoundExceptionThrow() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
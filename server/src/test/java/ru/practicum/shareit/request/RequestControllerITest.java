@@ -9,17 +9,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestChangesDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.service.RequestService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RequestController.class)
@@ -118,4 +128,79 @@ class RequestControllerITest {
         verify(requestService).readAll(userId, 0, 10);
     }
 
-}
\ No newline at end of file
+    @SneakyThrows
+    @Test
+    void readAllWhenCursorThenReadAfterPosition() {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        itemRequestDto.setId(5L);
+        itemRequestDto.setCreated(created);
+        when(requestService.readAllAfter(userId, created.minusHours(1), 4L, 1)).thenReturn(List.of(itemRequestDto));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "1")
+                        .param("cursor", Cursor.encode(created.minusHours(1), 4L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.encode(created, 5L)));
+
+        verify(requestService, never()).readAll(anyLong(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void searchWhenCursorThenSearchAfterId() {
+        itemRequestDto.setId(5L);
+        when(requestService.searchAfter(userId, "drill", 4L, 1)).thenReturn(List.of(itemRequestDto));
+
+        mockMvc.perform(get("/requests/search")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("text", "drill")
+                        .param("size", "1")
+                        .param("cursor", Cursor.encode(4L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.encode(5L)));
+
+        verify(requestService, never()).search(anyLong(), any(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void readChangesWhenSinceThenReadChangesAfterToken() {
+        RequestChangesDto changes = new RequestChangesDto(List.of(itemRequestDto), Cursor.encode(12L), false);
+        when(requestService.readChanges(userId, 7L, 100)).thenReturn(changes);
+
+        String result = mockMvc.perform(get("/requests/all/changes")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("since", Cursor.encode(7L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(changes), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void readMatchesWhenInvokeThenReturnOk() {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(3L);
+        itemDto.setName("drill");
+        List<RequestMatchDto> matches = List.of(new RequestMatchDto(itemDto, 2, LocalDateTime.of(2030, 1, 1, 0, 0)));
+        when(requestService.readMatches(userId, 5L, 0, 10)).thenReturn(matches);
+
+        String result = mockMvc.perform(get("/requests/{requestId}/matches", 5L)
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(matches), result);
+    }
+
+}
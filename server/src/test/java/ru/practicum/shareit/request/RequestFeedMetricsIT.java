@@ -0,0 +1,61 @@
+package ru.practicum.shareit.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestFeedMetricsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void readAllWhenRequestedTwiceThenCacheHitExposedByActuator() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("reader")
+                .email("feed-metrics@mail.ru")
+                .build());
+        double before = hits();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/requests/all")
+                            .header("X-Sharer-User-Id", user.getId())
+                            .param("from", "0")
+                            .param("size", "7"))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(before + 1, hits());
+    }
+
+    private double hits() throws Exception {
+        String body = mockMvc.perform(get("/actuator/metrics/cache.gets")
+                        .param("tag", "cache:shareit.request.all")
+                        .param("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body).get("measurements").get(0).get("value").asDouble();
+    }
+
+}
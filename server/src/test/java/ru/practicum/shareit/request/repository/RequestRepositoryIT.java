@@ -6,16 +6,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @DataJpaTest
 class RequestRepositoryIT {
@@ -29,8 +34,13 @@ class RequestRepositoryIT {
     @Autowired
     private RequestRepository requestRepository;
 
+    @Autowired
+    private RequestMatchRepository requestMatchRepository;
+
     private User user;
 
+    private Item item;
+
     private ItemRequest itemRequest;
 
     @BeforeEach
@@ -40,7 +50,7 @@ class RequestRepositoryIT {
                 .email("mail@mail.ru")
                 .build());
 
-        Item item = itemRepository.save(Item.builder()
+        item = itemRepository.save(Item.builder()
                 .name("name")
                 .description("desc")
                 .available(true)
@@ -52,6 +62,9 @@ class RequestRepositoryIT {
                 .requestor(user)
                 .created(LocalDateTime.now())
                 .build());
+
+        item.setRequest(itemRequest);
+        itemRepository.save(item);
     }
 
     @Test
@@ -68,6 +81,69 @@ class RequestRepositoryIT {
         Assertions.assertTrue(allByRequestorIdIsNot.isEmpty());
     }
 
+    @Test
+    void findAllByRequestorIdIsNotAfter() {
+        User other = userRepository.save(User.builder()
+                .name("other")
+                .email("other@mail.ru")
+                .build());
+        LocalDateTime created = itemRequest.getCreated().truncatedTo(ChronoUnit.SECONDS);
+        itemRequest.setCreated(created);
+        requestRepository.save(itemRequest);
+        ItemRequest sameTime = requestRepository.save(ItemRequest.builder()
+                .description("saw")
+                .requestor(user)
+                .created(created)
+                .build());
+        ItemRequest later = requestRepository.save(ItemRequest.builder()
+                .description("drill")
+                .requestor(user)
+                .created(created.plusMinutes(1))
+                .build());
+
+        List<ItemRequest> afterFirst = requestRepository.findAllByRequestorIdIsNotAfter(other.getId(), created,
+                itemRequest.getId(), PageRequest.of(0, 10));
+        List<ItemRequest> ownExcluded = requestRepository.findAllByRequestorIdIsNotAfter(user.getId(),
+                created.minusDays(1), 0L, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(sameTime, later), afterFirst);
+        Assertions.assertTrue(ownExcluded.isEmpty());
+    }
+
+    @Test
+    void findAllByRequestIdIn() {
+        List<Item> allByRequestIdIn = itemRepository.findAllByRequestIdIn(Set.of(itemRequest.getId(), 0L));
+
+        Assertions.assertEquals(List.of(item), allByRequestIdIn);
+        Assertions.assertEquals(itemRequest.getId(), allByRequestIdIn.get(0).getRequest().getId());
+    }
+
+    @Test
+    void findAllOpenAndFindMatchesByRequestId() {
+        ItemRequest open = requestRepository.save(ItemRequest.builder()
+                .description("drill")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .build());
+        Item unavailable = itemRepository.save(Item.builder()
+                .name("old drill")
+                .description("desc")
+                .available(false)
+                .owner(user)
+                .build());
+        requestMatchRepository.save(RequestMatch.builder()
+                .request(open).item(item).score(1).created(LocalDateTime.now()).build());
+        requestMatchRepository.save(RequestMatch.builder()
+                .request(open).item(unavailable).score(2).created(LocalDateTime.now()).build());
+
+        List<RequestMatch> matches = requestMatchRepository.findAllByRequestIdAndItemAvailableTrue(open.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "score")));
+
+        Assertions.assertEquals(List.of(open), requestRepository.findAllOpen());
+        Assertions.assertEquals(1, matches.size());
+        Assertions.assertEquals(item.getId(), matches.get(0).getItem().getId());
+    }
+
     @AfterEach
     void tearDown() {
         userRepository.deleteAll();
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextRequestSearchTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @InjectMocks
+    private FullTextRequestSearch fullTextRequestSearch;
+
+    @Test
+    void searchWhenTextHasShortWordsThenQueryOnlyIndexedTokens() {
+        fullTextRequestSearch.search(1L, "Нужен ПК, Drill!", 0, PageRequest.of(0, 10));
+
+        verify(requestRepository).searchFullText(1L, "drill & нужен", 0, PageRequest.of(0, 10));
+    }
+
+    @Test
+    void searchWhenOnlyShortWordsThenEmpty() {
+        assertEquals(List.of(), fullTextRequestSearch.search(1L, "ПК и ТВ", 0, PageRequest.of(0, 10)));
+
+        verifyNoInteractions(requestRepository);
+    }
+
+}
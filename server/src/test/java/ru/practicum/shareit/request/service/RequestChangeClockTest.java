@@ -0,0 +1,51 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RequestChangeClockTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final Instant time = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Test
+    void settledWhenSamplesYoungerThanLagThenHoldBack() {
+        RequestChangeClock clock = new RequestChangeClock(requestRepository, itemRepository, Duration.ofSeconds(10));
+
+        clock.record(time, 5L);
+        clock.record(time.plusSeconds(5), 8L);
+        clock.record(time.plusSeconds(12), 12L);
+
+        assertEquals(0L, clock.settled(time.plusSeconds(9)));
+        assertEquals(5L, clock.settled(time.plusSeconds(14)));
+        assertEquals(8L, clock.settled(time.plusSeconds(15)));
+        assertEquals(12L, clock.settled(time.plusSeconds(30)));
+    }
+
+    @Test
+    void settledWhenLagIsZeroThenUnbounded() {
+        RequestChangeClock clock = new RequestChangeClock(requestRepository, itemRepository, Duration.ZERO);
+
+        clock.sample();
+
+        assertEquals(Long.MAX_VALUE, clock.settled());
+        verifyNoInteractions(requestRepository, itemRepository);
+    }
+
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestFeedCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestFeedCache requestFeedCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestFeedCache = new RequestFeedCache(meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void getPageWhenCachedThenRecordHits() {
+        requestFeedCache.getPage(1L, 0, 2, loader(10L, 11L));
+        requestFeedCache.getPage(1L, 0, 2, loader(10L, 11L));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "shareit.request.all", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "shareit.request.all", "result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void onRequestCreatedWhenPageFullThenKeepIt() {
+        requestFeedCache.getPage(1L, 0, 2, loader(10L, 11L));
+        requestFeedCache.getPage(1L, 2, 2, loader(12L));
+
+        requestFeedCache.onRequestCreated(2L);
+        requestFeedCache.getPage(1L, 0, 2, loader(10L, 11L));
+        requestFeedCache.getPage(1L, 2, 2, loader(12L, 13L));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void onRequestChangedWhenPageContainsRequestThenEvictItAndOwnFeed() {
+        requestFeedCache.getPage(1L, 0, 2, loader(10L, 11L));
+        requestFeedCache.getPage(1L, 2, 2, loader(12L, 13L));
+        requestFeedCache.getOwn(2L, loader(12L));
+
+        requestFeedCache.onRequestChanged(2L, 12L);
+        requestFeedCache.getPage(1L, 0, 2, loader(10L, 11L));
+        requestFeedCache.getPage(1L, 2, 2, loader(12L, 13L));
+        requestFeedCache.getOwn(2L, loader(12L));
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void getPageWhenRequestChangedDuringLoadThenNotCached() {
+        requestFeedCache.getPage(1L, 0, 2, () -> {
+            requestFeedCache.onRequestChanged(2L, 10L);
+            return loader(10L, 11L).get();
+        });
+        requestFeedCache.getOwn(2L, () -> {
+            requestFeedCache.onRequestCreated(2L);
+            return loader(12L).get();
+        });
+        requestFeedCache.getPage(1L, 0, 2, loader(10L, 11L));
+        requestFeedCache.getOwn(2L, loader(12L));
+
+        assertEquals(4, loads.get());
+    }
+
+    private Supplier<List<ItemRequestDto>> loader(Long... ids) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(ids).stream()
+                    .map(id -> ItemRequestDto.builder().id(id).build())
+                    .collect(Collectors.toList());
+        };
+    }
+
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatcherTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+
+    @Captor
+    private ArgumentCaptor<List<RequestMatch>> matchesCaptor;
+
+    private RequestMatcher requestMatcher;
+
+    private final User owner = User.builder().id(1L).build();
+    private final User requestor = User.builder().id(2L).build();
+
+    @BeforeEach
+    void setUp() {
+        requestMatcher = new RequestMatcher(requestRepository, itemRepository, requestMatchRepository, 2);
+    }
+
+    @Test
+    void tokenizeWhenMixedTextThenLowercaseWordsFromThreeLetters() {
+        assertEquals(Set.of("нужна", "дрель", "drill", "bosch"),
+                RequestMatcher.tokenize("Нужна ДРЕЛЬ, drill-by Bosch!"));
+    }
+
+    @Test
+    void onItemCreatedWhenOpenRequestsShareTokensThenSaveBestMatches() {
+        when(requestRepository.findAllOpen()).thenReturn(List.of(
+                request(10L, requestor, "need a cordless drill"),
+                request(11L, requestor, "drill and hammer"),
+                request(12L, requestor, "cordless drill hammer"),
+                request(13L, owner, "cordless drill hammer"),
+                request(14L, requestor, "ladder")));
+        when(requestRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> ItemRequest.builder().id(invocation.getArgument(0)).build());
+        when(requestRepository.findIdsByIdIn(any())).thenAnswer(invocation -> Set.copyOf(invocation.getArgument(0)));
+        requestMatcher.rebuild();
+
+        requestMatcher.onItemCreated(item(20L, "Drill", "cordless hammer", true));
+
+        verify(requestMatchRepository).saveAll(matchesCaptor.capture());
+        List<RequestMatch> matches = matchesCaptor.getValue();
+        assertEquals(List.of(12L, 10L), matches.stream()
+                .map(match -> match.getRequest().getId()).collect(Collectors.toList()));
+        assertEquals(List.of(3, 2), matches.stream().map(RequestMatch::getScore).collect(Collectors.toList()));
+    }
+
+    @Test
+    void onItemCreatedWhenItemAnswersRequestThenRequestClosed() {
+        ItemRequest request = request(10L, requestor, "drill");
+        when(requestRepository.findAllOpen()).thenReturn(List.of(request));
+        requestMatcher.rebuild();
+        Item answer = item(20L, "Drill", "desc", true);
+        answer.setRequest(request);
+
+        requestMatcher.onItemCreated(answer);
+        requestMatcher.onItemCreated(item(21L, "Drill", "desc", true));
+
+        verify(requestMatchRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void onRequestCreatedWhenAvailableItemsMatchThenSaveMatches() {
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(
+                item(20L, "Drill", "cordless", true),
+                item(21L, "Saw", "hand saw", true)));
+        when(itemRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> Item.builder().id(invocation.getArgument(0)).build());
+        when(itemRepository.findIdsByIdIn(any())).thenAnswer(invocation -> Set.copyOf(invocation.getArgument(0)));
+        requestMatcher.rebuild();
+        requestMatcher.onItemUpdated(item(21L, "Saw", "drill saw", false));
+
+        requestMatcher.onRequestCreated(request(10L, requestor, "drill please"));
+
+        verify(requestMatchRepository).saveAll(matchesCaptor.capture());
+        assertEquals(List.of(20L), matchesCaptor.getValue().stream()
+                .map(match -> match.getItem().getId()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void onRequestCreatedWhenItemGoneOrAlreadyMatchedThenSaveOnlyNewMatches() {
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(
+                item(20L, "Drill", "cordless", true),
+                item(21L, "Drill", "hammer", true),
+                item(22L, "Drill", "impact", true)));
+        when(itemRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> Item.builder().id(invocation.getArgument(0)).build());
+        when(itemRepository.findIdsByIdIn(any())).thenReturn(Set.of(21L, 22L));
+        when(requestMatchRepository.findItemIdsByRequestId(eq(10L), any())).thenReturn(Set.of(22L));
+        requestMatcher.rebuild();
+
+        requestMatcher.onRequestCreated(request(10L, requestor, "drill please"));
+        requestMatcher.onRequestCreated(request(11L, requestor, "cordless"));
+
+        verify(requestMatchRepository).saveAll(matchesCaptor.capture());
+        assertEquals(List.of(21L), matchesCaptor.getValue().stream()
+                .map(match -> match.getItem().getId()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void onUserDeletedWhenUserOwnsItemsThenNotMatched() {
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(item(20L, "Drill", "cordless", true)));
+        requestMatcher.rebuild();
+
+        requestMatcher.onUserDeleted(owner.getId());
+        requestMatcher.onRequestCreated(request(10L, requestor, "drill please"));
+
+        verify(itemRepository, never()).findIdsByIdIn(any());
+        verify(requestMatchRepository, never()).saveAll(any());
+    }
+
+    private static ItemRequest request(long id, User requestor, String description) {
+        return ItemRequest.builder()
+                .id(id)
+                .requestor(requestor)
+                .description(description)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+}
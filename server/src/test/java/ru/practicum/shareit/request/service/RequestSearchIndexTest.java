@@ -0,0 +1,143 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestSearchIndexTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @InjectMocks
+    private RequestSearchIndex requestSearchIndex;
+
+    private User owner;
+    private ItemRequest drill;
+    private ItemRequest saw;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder()
+                .id(1L)
+                .build();
+
+        User requestor = User.builder()
+                .id(2L)
+                .build();
+
+        drill = ItemRequest.builder()
+                .id(1L)
+                .description("Нужна аккумуляторная дрель")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+
+        saw = ItemRequest.builder()
+                .id(2L)
+                .description("Нужна пила по дереву")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+
+        when(requestRepository.findAllWithRequestor()).thenReturn(List.of(drill, saw));
+        requestSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchWhenAllWordsMatchThenReturnRequests() {
+        when(requestRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of(drill));
+
+        List<ItemRequest> result = requestSearchIndex.search(owner.getId(), "ДРЕЛЬ нужна", 0L,
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill), result);
+    }
+
+    @Test
+    void searchWhenAfterIdThenReturnNextRequests() {
+        when(requestRepository.findAllByIdIn(List.of(2L))).thenReturn(List.of(saw));
+
+        List<ItemRequest> result = requestSearchIndex.search(owner.getId(), "нужна", 1L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(saw), result);
+    }
+
+    @Test
+    void searchWhenOwnRequestsThenRepositoryNotInvoked() {
+        List<ItemRequest> result = requestSearchIndex.search(drill.getRequestor().getId(), "нужна", 0L,
+                PageRequest.of(0, 10));
+
+        assertTrue(result.isEmpty());
+        verify(requestRepository, never()).findAllByIdIn(any());
+    }
+
+    @Test
+    void searchWhenRequestDeletedThenDropFromIndex() {
+        when(requestRepository.findAllByIdIn(List.of(2L))).thenReturn(List.of());
+
+        requestSearchIndex.search(owner.getId(), "пила", 0L, PageRequest.of(0, 10));
+
+        assertTrue(requestSearchIndex.search(owner.getId(), "пила", 0L, PageRequest.of(0, 10)).isEmpty());
+        verify(requestRepository).findAllByIdIn(List.of(2L));
+    }
+
+    @Test
+    void searchWhenRequestDeletedThenFillPageFromNextRequests() {
+        when(requestRepository.findAllByIdIn(List.of(1L))).thenReturn(List.of());
+        when(requestRepository.findAllByIdIn(List.of(2L))).thenReturn(List.of(saw));
+
+        List<ItemRequest> result = requestSearchIndex.search(owner.getId(), "нужна", 0L, PageRequest.of(0, 1));
+
+        assertEquals(List.of(saw), result);
+    }
+
+    @Test
+    void searchWhenPagedThenSkipPreviousPages() {
+        when(requestRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(saw, drill));
+
+        List<ItemRequest> result = requestSearchIndex.search(owner.getId(), "нужна", 0L, PageRequest.of(1, 1));
+
+        assertEquals(List.of(saw), result);
+    }
+
+    @Test
+    void removeByRequestorWhenInvokeThenNotFound() {
+        requestSearchIndex.removeByRequestor(drill.getRequestor().getId());
+
+        assertTrue(requestSearchIndex.search(owner.getId(), "нужна", 0L, PageRequest.of(0, 10)).isEmpty());
+        verify(requestRepository, never()).findAllByIdIn(any());
+    }
+
+    @Test
+    void indexWhenRequestCreatedThenFound() {
+        ItemRequest hammer = ItemRequest.builder()
+                .id(3L)
+                .description("Молоток на выходные")
+                .requestor(drill.getRequestor())
+                .build();
+        when(requestRepository.findAllByIdIn(List.of(3L))).thenReturn(List.of(hammer));
+
+        requestSearchIndex.index(hammer);
+
+        assertEquals(List.of(hammer), requestSearchIndex.search(owner.getId(), "молоток", 0L,
+                PageRequest.of(0, 10)));
+    }
+
+}
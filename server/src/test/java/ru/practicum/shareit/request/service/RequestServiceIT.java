@@ -0,0 +1,189 @@
+package ru.practicum.shareit.request.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestChangesDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.request.changes.safety-lag=0s"})
+class RequestServiceIT {
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@mail.ru")
+                .build());
+        for (int i = 0; i < 20; i++) {
+            User requestor = userRepository.save(User.builder()
+                    .name("requestor" + i)
+                    .email("requestor" + i + "@mail.ru")
+                    .build());
+            ItemRequest request = requestRepository.save(ItemRequest.builder()
+                    .description("request" + i)
+                    .requestor(requestor)
+                    .created(LocalDateTime.now().plusSeconds(i))
+                    .build());
+            itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("desc")
+                    .available(true)
+                    .owner(user)
+                    .request(request)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void readAllWhenPageOfRequestsThenTwoQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> requests = requestService.readAll(user.getId(), 0, 20);
+
+        assertEquals(20, requests.size());
+        requests.forEach(request -> assertEquals(1, request.getItems().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void readChangesWhenRequestCreatedOrAnsweredThenReturnOnlyChanges() {
+        RequestChangesDto initial = requestService.readChanges(user.getId(), 0, 100);
+        assertEquals(20, initial.getRequests().size());
+        assertFalse(initial.isHasMore());
+        long since = Cursor.decodeId(initial.getToken());
+
+        User requestor = userRepository.save(User.builder()
+                .name("requestor")
+                .email("requestor@mail.ru")
+                .build());
+        ItemRequest created = requestRepository.save(ItemRequest.builder()
+                .description("new request")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequest answered = requestRepository.findAllByRequestorIdIsNotChangedAfter(user.getId(), 0,
+                PageRequest.of(0, 1)).get(0);
+        itemRepository.save(Item.builder()
+                .name("answer")
+                .description("desc")
+                .available(true)
+                .owner(user)
+                .request(answered)
+                .build());
+
+        RequestChangesDto changes = requestService.readChanges(user.getId(), since, 100);
+
+        assertEquals(List.of(created.getId(), answered.getId()), changes.getRequests().stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList()));
+        assertTrue(requestService.readChanges(user.getId(), Cursor.decodeId(changes.getToken()), 100)
+                .getRequests().isEmpty());
+    }
+
+    @Test
+    void readChangesWhenAnswerUpdatedThenReturnRequest() {
+        long since = Cursor.decodeId(requestService.readChanges(user.getId(), 0, 100).getToken());
+        Item answer = itemRepository.findAllByOwnerId(user.getId(), PageRequest.of(0, 1)).get(0);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setAvailable(false);
+        itemService.update(user.getId(), answer.getId(), itemDto);
+
+        RequestChangesDto changes = requestService.readChanges(user.getId(), since, 100);
+
+        assertEquals(1, changes.getRequests().size());
+        assertEquals(answer.getRequest().getId(), changes.getRequests().iterator().next().getId());
+    }
+
+    @Test
+    void searchWhenRequestsCreatedThenFindOthersRequestsByWords() {
+        User requestor = userRepository.save(User.builder()
+                .name("requestor")
+                .email("requestor@mail.ru")
+                .build());
+        ItemRequestDto requestDto = new ItemRequestDto();
+        requestDto.setDescription("Looking for a folding ladder");
+        ItemRequestDto others = requestService.create(requestor.getId(), requestDto);
+        requestService.create(user.getId(), requestDto);
+
+        List<ItemRequestDto> found = requestService.search(user.getId(), "Ladder folding", 0, 10);
+
+        assertEquals(List.of(others.getId()), found.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void readMatchesWhenItemCreatedForOpenRequestThenServeMatch() {
+        ItemRequestDto requestDto = new ItemRequestDto();
+        requestDto.setDescription("Need a cordless drill");
+        ItemRequestDto request = requestService.create(user.getId(), requestDto);
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Drill");
+        itemDto.setDescription("Cordless, two batteries");
+        itemDto.setAvailable(true);
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+
+        List<RequestMatchDto> matches = requestService.readMatches(owner.getId(), request.getId(), 0, 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(item.getId(), matches.get(0).getItem().getId());
+        assertEquals(2, matches.get(0).getScore());
+    }
+
+}
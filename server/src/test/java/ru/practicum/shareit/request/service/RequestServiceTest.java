@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,22 +8,38 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.RequestChangeView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestChangesDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +55,22 @@ class RequestServiceTest {
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+
+    @Mock
+    private RequestMatcher requestMatcher;
+
+    @Spy
+    private RequestFeedCache requestFeedCache = new RequestFeedCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(1));
+
+    @Mock
+    private RequestSearch requestSearch;
+
+    @Mock
+    private RequestChangeClock requestChangeClock;
+
     @InjectMocks
     private RequestServiceImpl requestService;
 
@@ -95,6 +128,8 @@ class RequestServiceTest {
         assertEquals(itemRequestDto.getDescription(), actual.getDescription());
         assertEquals(user.getId(), actual.getRequestor().getId());
         assertNotNull(actual.getCreated());
+        verify(requestMatcher).onRequestCreated(request);
+        verify(requestSearch).index(request);
     }
 
     @Test
@@ -107,6 +142,21 @@ class RequestServiceTest {
         assertEquals(request.getId(), actual.get(0).getId());
         assertEquals(request.getDescription(), actual.get(0).getDescription());
         assertNotNull(actual.get(0).getCreated());
+        assertEquals(1, actual.get(0).getItems().size());
+    }
+
+    @Test
+    void readWhenCachedThenLoadOnceUntilRequestCreated() {
+        when(requestRepository.findAllByRequestorId(user.getId())).thenReturn(List.of(request));
+        when(requestRepository.save(any())).thenReturn(request);
+        when(userService.getUserById(user.getId())).thenReturn(user);
+
+        requestService.read(user.getId());
+        requestService.read(user.getId());
+        requestService.create(user.getId(), new ItemRequestDto());
+        requestService.read(user.getId());
+
+        verify(requestRepository, times(2)).findAllByRequestorId(user.getId());
     }
 
     @Test
@@ -124,7 +174,7 @@ class RequestServiceTest {
     @Test
     void readAllWhenInvokeThenReturnItemRequests() {
         when(requestRepository.findAllByRequestorIdIsNot(any(), any())).thenReturn(List.of(request));
-        when(itemService.findAllByRequestId(request.getId())).thenReturn(List.of(item));
+        when(itemService.findAllByRequestIdIn(Set.of(request.getId()))).thenReturn(List.of(item));
 
         List<ItemRequestDto> actual = requestService.readAll(user.getId(), 0, 10);
 
@@ -133,6 +183,144 @@ class RequestServiceTest {
         assertEquals(1, actual.get(0).getItems().size());
     }
 
+    @Test
+    void readAllWhenFromIsOffsetThenRequestContainingPage() {
+        when(requestRepository.findAllByRequestorIdIsNot(any(), any())).thenReturn(List.of());
+
+        requestService.readAll(user.getId(), 20, 10);
+
+        verify(requestRepository).findAllByRequestorIdIsNot(user.getId(),
+                PageRequest.of(2, 10, Sort.by("created", "id").ascending()));
+    }
+
+    @Test
+    void readChangesWhenRequestsAndAnswersThenMergeBySequence() {
+        ItemRequest answered = ItemRequest.builder()
+                .id(6L)
+                .description("answered")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .build();
+        request.setChangeSeq(11L);
+        RequestChangeView answer = mock(RequestChangeView.class);
+        when(answer.getRequestId()).thenReturn(answered.getId());
+        when(answer.getChangeSeq()).thenReturn(12L);
+        RequestChangeView later = mock(RequestChangeView.class);
+        when(later.getRequestId()).thenReturn(7L);
+        when(later.getChangeSeq()).thenReturn(13L);
+        when(requestRepository.findAllByRequestorIdIsNotChangedAfter(user.getId(), 10L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(request));
+        when(itemService.findRequestChangesAfter(user.getId(), 10L, 2)).thenReturn(List.of(answer, later));
+        when(requestRepository.findAllByIdIn(Set.of(answered.getId()))).thenReturn(List.of(answered));
+        when(requestChangeClock.settled()).thenReturn(Long.MAX_VALUE);
+
+        RequestChangesDto actual = requestService.readChanges(user.getId(), 10L, 2);
+
+        assertEquals(List.of(request.getId(), answered.getId()), actual.getRequests().stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList()));
+        assertEquals(12L, Cursor.decodeId(actual.getToken()));
+        assertTrue(actual.isHasMore());
+    }
+
+    @Test
+    void readChangesWhenNoChangesThenKeepToken() {
+        when(requestRepository.findAllByRequestorIdIsNotChangedAfter(user.getId(), 10L, PageRequest.of(0, 5)))
+                .thenReturn(List.of());
+        when(itemService.findRequestChangesAfter(user.getId(), 10L, 5)).thenReturn(List.of());
+        when(requestChangeClock.settled()).thenReturn(Long.MAX_VALUE);
+
+        RequestChangesDto actual = requestService.readChanges(user.getId(), 10L, 5);
+
+        assertTrue(actual.getRequests().isEmpty());
+        assertEquals(10L, Cursor.decodeId(actual.getToken()));
+        assertFalse(actual.isHasMore());
+    }
+
+    @Test
+    void readChangesWhenOneSourceFillsPageThenHasMore() {
+        ItemRequest next = ItemRequest.builder()
+                .id(6L)
+                .description("next")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .changeSeq(12L)
+                .build();
+        request.setChangeSeq(11L);
+        when(requestRepository.findAllByRequestorIdIsNotChangedAfter(user.getId(), 10L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(request, next));
+        when(itemService.findRequestChangesAfter(user.getId(), 10L, 2)).thenReturn(List.of());
+        when(requestChangeClock.settled()).thenReturn(Long.MAX_VALUE);
+
+        RequestChangesDto actual = requestService.readChanges(user.getId(), 10L, 2);
+
+        assertEquals(2, actual.getRequests().size());
+        assertEquals(12L, Cursor.decodeId(actual.getToken()));
+        assertTrue(actual.isHasMore());
+    }
+
+    @Test
+    void readChangesWhenChangesNotSettledThenHoldTokenBack() {
+        request.setChangeSeq(11L);
+        when(requestRepository.findAllByRequestorIdIsNotChangedAfter(user.getId(), 10L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(request));
+        when(itemService.findRequestChangesAfter(user.getId(), 10L, 1)).thenReturn(List.of());
+        when(requestChangeClock.settled()).thenReturn(9L);
+
+        RequestChangesDto actual = requestService.readChanges(user.getId(), 10L, 1);
+
+        assertEquals(1, actual.getRequests().size());
+        assertEquals(10L, Cursor.decodeId(actual.getToken()));
+        assertFalse(actual.isHasMore());
+    }
+
+    @Test
+    void searchWhenInvokeThenReturnItemRequests() {
+        when(requestSearch.search(user.getId(), "desc", 0, PageRequest.of(2, 10))).thenReturn(List.of(request));
+        when(itemService.findAllByRequestIdIn(Set.of(request.getId()))).thenReturn(List.of(item));
+
+        List<ItemRequestDto> actual = requestService.search(user.getId(), "desc", 20, 10);
+
+        assertEquals(request.getId(), actual.get(0).getId());
+        assertEquals(1, actual.get(0).getItems().size());
+    }
+
+    @Test
+    void searchAfterWhenBlankTextThenReturnEmpty() {
+        List<ItemRequestDto> actual = requestService.searchAfter(user.getId(), " ", 4L, 10);
+
+        assertTrue(actual.isEmpty());
+        verify(requestSearch, never()).search(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void readMatchesWhenInvokeThenReturnMatchedItemsByScore() {
+        RequestMatch match = RequestMatch.builder()
+                .id(8L)
+                .request(request)
+                .item(item)
+                .score(2)
+                .created(LocalDateTime.now())
+                .build();
+        when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
+        when(requestMatchRepository.findAllByRequestIdAndItemAvailableTrue(request.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "score").and(Sort.by("id")))))
+                .thenReturn(List.of(match));
+
+        List<RequestMatchDto> actual = requestService.readMatches(user.getId(), request.getId(), 0, 10);
+
+        assertEquals(1, actual.size());
+        assertEquals(item.getId(), actual.get(0).getItem().getId());
+        assertEquals(2, actual.get(0).getScore());
+    }
+
+    @Test
+    void readMatchesWhenRequestNotExistThenNotFoundExceptionThrow() {
+        when(requestRepository.findById(request.getId())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> requestService.readMatches(user.getId(), request.getId(), 0, 10));
+    }
+
     @Test
     void getItemRequestByIdWhenInvokeThenReturnItemRequest() {
         when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
@@ -6,7 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.service.ActiveBookingIndex;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.service.RequestMatcher;
+import ru.practicum.shareit.request.service.RequestSearch;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -27,6 +30,15 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ActiveBookingIndex activeBookingIndex;
+
+    @Mock
+    private RequestMatcher requestMatcher;
+
+    @Mock
+    private RequestSearch requestSearch;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -128,6 +140,9 @@ class UserServiceTest {
         userService.delete(id);
 
         verify(userRepository).deleteById(id);
+        verify(activeBookingIndex).removeByUser(id);
+        verify(requestMatcher).onUserDeleted(id);
+        verify(requestSearch).removeByRequestor(id);
     }
 
     @Test